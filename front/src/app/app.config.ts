@@ -1,30 +1,35 @@
-import { ApplicationConfig, provideBrowserGlobalErrorListeners } from '@angular/core';
-import { provideHttpClient, withInterceptors, HttpRequest, HttpHandlerFn } from '@angular/common/http';
-import { provideRouter } from '@angular/router';
+import { ApplicationConfig, inject, provideBrowserGlobalErrorListeners } from '@angular/core';
+import { provideHttpClient, withInterceptors, HttpErrorResponse, HttpRequest, HttpHandlerFn } from '@angular/common/http';
+import { provideRouter, Router } from '@angular/router';
+import { catchError, throwError } from 'rxjs';
 
 import { routes } from './app.routes';
+import { AuthService } from './services/auth.service';
 
-// Interceptor to add X-User-Id header to all requests
-function userIdInterceptor(req: HttpRequest<unknown>, next: HttpHandlerFn) {
-  const userJson = localStorage.getItem('currentUser');
-  if (userJson) {
-    try {
-      const user = JSON.parse(userJson);
-      if (user && user.id) {
-        const clonedReq = req.clone({
-          setHeaders: { 'X-User-Id': user.id.toString() }
-        });
-        return next(clonedReq);
-      }
-    } catch (e) {}
+// Interceptor to send the session token with every request; a 401 means it expired or was revoked
+function sessionTokenInterceptor(req: HttpRequest<unknown>, next: HttpHandlerFn) {
+  const token = localStorage.getItem('authToken');
+  if (!token) {
+    return next(req);
   }
-  return next(req);
+  const authService = inject(AuthService);
+  const router = inject(Router);
+  const clonedReq = req.clone({
+    setHeaders: { Authorization: `Bearer ${token}` }
+  });
+  return next(clonedReq).pipe(catchError((error: HttpErrorResponse) => {
+    if (error.status === 401) {
+      authService.expireSession();
+      router.navigate(['/login']);
+    }
+    return throwError(() => error);
+  }));
 }
 
 export const appConfig: ApplicationConfig = {
   providers: [
     provideBrowserGlobalErrorListeners(),
     provideRouter(routes),
-    provideHttpClient(withInterceptors([userIdInterceptor]))
+    provideHttpClient(withInterceptors([sessionTokenInterceptor]))
   ]
 };
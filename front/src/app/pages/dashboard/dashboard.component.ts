@@ -41,41 +41,18 @@ export class DashboardComponent implements OnInit {
   ) {}
 
   ngOnInit() {
-    this.loadSummary();
-    this.loadUpcoming();
-    this.loadCompletedTasks();
-    this.loadWeeklyHistory();
     this.buildCalendar();
-    this.loadCalendarEvents();
-  }
-
-  loadSummary() {
-    this.dashboardService.getSummary().subscribe(data => {
-      this.summary = data;
-      console.log('Dashboard Summary:', data);
-      console.log('Subject Comparison:', data.subjectComparison);
-      console.log('Subject Keys found:', this.getSubjectKeys());
-      this.cd.detectChanges();
-    });
-  }
-
-  loadUpcoming() {
-    this.dashboardService.getUpcoming().subscribe(data => {
-      this.upcoming = data;
-      this.cd.detectChanges();
-    });
-  }
-
-  loadCompletedTasks() {
-    this.taskService.getWeeklyCompletedCount().subscribe(count => {
-      this.completedTasks = count;
-      this.cd.detectChanges();
-    });
+    this.loadDashboard();
   }
 
-  loadWeeklyHistory() {
-    this.taskService.getWeeklyHistory().subscribe(data => {
-      this.weeklyHistory = data.map(w => ({ label: w.label, hours: w.hours }));
+  // One request for every section of the page; month navigation reloads only the calendar
+  loadDashboard() {
+    this.dashboardService.getAll(this.currentYear, this.currentMonth).subscribe(data => {
+      this.summary = data.summary;
+      this.upcoming = data.upcoming;
+      this.calendarEvents = data.calendar;
+      this.completedTasks = data.weekCompleted;
+      this.weeklyHistory = data.history.map(w => ({ label: w.label, hours: w.hours }));
       // Default to current week (last in array)
       this.selectedWeekIndex = this.weeklyHistory.length - 1;
       this.cd.detectChanges();
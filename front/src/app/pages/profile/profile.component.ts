@@ -29,7 +29,7 @@ export class ProfileComponent implements OnInit {
       },
       error: () => {
         // Force logout on frontend anyway
-        localStorage.removeItem('currentUser');
+        this.authService.expireSession();
         this.router.navigate(['/login']);
       }
     });
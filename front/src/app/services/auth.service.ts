@@ -13,6 +13,8 @@ export interface AuthResponse {
   success: boolean;
   message?: string;
   user?: User;
+  token?: string;
+  expiresAt?: string;
   loggedIn?: boolean;
 }
 
@@ -26,7 +28,10 @@ export class AuthService {
 
   constructor(private http: HttpClient) {
     const stored = localStorage.getItem('currentUser');
-    if (stored) {
+    // A user stored before tokens existed can't authenticate any request
+    if (stored && !localStorage.getItem('authToken')) {
+      localStorage.removeItem('currentUser');
+    } else if (stored) {
       this.currentUserSubject.next(JSON.parse(stored));
     }
   }
@@ -34,7 +39,8 @@ export class AuthService {
   register(name: string, email: string, password: string): Observable<AuthResponse> {
     return this.http.post<AuthResponse>(`${this.apiUrl}/register`, { name, email, password })
       .pipe(tap(res => {
-        if (res.success && res.user) {
+        if (res.success && res.user && res.token) {
+          localStorage.setItem('authToken', res.token);
           this.setUser(res.user);
         }
       }));
@@ -43,7 +49,8 @@ export class AuthService {
   login(email: string, password: string): Observable<AuthResponse> {
     return this.http.post<AuthResponse>(`${this.apiUrl}/login`, { email, password })
       .pipe(tap(res => {
-        if (res.success && res.user) {
+        if (res.success && res.user && res.token) {
+          localStorage.setItem('authToken', res.token);
           this.setUser(res.user);
         }
       }));
@@ -74,9 +81,14 @@ export class AuthService {
 
   private clearUser() {
     localStorage.removeItem('currentUser');
+    localStorage.removeItem('authToken');
     this.currentUserSubject.next(null);
   }
 
+  expireSession() {
+    this.clearUser();
+  }
+
   getCurrentUser(): User | null {
     return this.currentUserSubject.value;
   }
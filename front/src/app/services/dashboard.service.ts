@@ -40,6 +40,14 @@ export interface CalendarEvent {
   parentTaskId?: number;
 }
 
+export interface DashboardAll {
+  summary: DashboardSummary;
+  upcoming: UpcomingData;
+  calendar: CalendarEvent[];
+  weekCompleted: number;
+  history: { weekStart: string, weekEnd: string, hours: number, label: string }[];
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -59,4 +67,10 @@ export class DashboardService {
   getCalendarEvents(year: number, month: number): Observable<CalendarEvent[]> {
     return this.http.get<CalendarEvent[]>(`${this.apiUrl}/calendar?year=${year}&month=${month}`);
   }
+
+  // Sections the dashboard page shows, in one round trip
+  getAll(year: number, month: number): Observable<DashboardAll> {
+    const sections = 'summary,upcoming,calendar,weekCompleted,history';
+    return this.http.get<DashboardAll>(`${this.apiUrl}/all?sections=${sections}&year=${year}&month=${month}`);
+  }
 }
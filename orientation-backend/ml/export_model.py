@@ -0,0 +1,101 @@
+"""
+Export orientation_model.pkl to the JSON artifact read by the Java backend
+when orientation.predictor.mode=local (see LocalModel.java).
+
+    python export_model.py [--out orientation_model.json] [--fixture parity.json --samples 200]
+
+Supported estimators: DecisionTreeClassifier, RandomForestClassifier,
+ExtraTreesClassifier, LogisticRegression, LinearSVC, optionally wrapped in a
+Pipeline whose only other step is a StandardScaler.
+
+--fixture also writes random inputs together with the labels this Python model
+predicts for them, so the Java side can check it agrees with the sidecar.
+"""
+import argparse
+import json
+import os
+
+import joblib
+import numpy as np
+
+script_dir = os.path.dirname(os.path.abspath(__file__))
+
+
+def export_tree(tree):
+    t = tree.tree_
+    return {
+        "children_left": t.children_left.tolist(),
+        "children_right": t.children_right.tolist(),
+        "feature": t.feature.tolist(),
+        "threshold": t.threshold.tolist(),
+        # value is (n_nodes, n_outputs, n_classes); single output
+        "value": t.value[:, 0, :].tolist(),
+    }
+
+
+def unwrap(model):
+    scaler = None
+    if hasattr(model, "steps"):
+        steps = [step for _, step in model.steps]
+        model = steps[-1]
+        for step in steps[:-1]:
+            if type(step).__name__ != "StandardScaler":
+                raise SystemExit("Unsupported pipeline step: %s" % type(step).__name__)
+            scaler = {"mean": step.mean_.tolist(), "scale": step.scale_.tolist()}
+    return model, scaler
+
+
+def export(model, encoder, version):
+    estimator, scaler = unwrap(model)
+    name = type(estimator).__name__
+    # Estimator classes are encoded ints; the backend wants the decoded labels
+    classes = [str(c) for c in encoder.inverse_transform(estimator.classes_)]
+    artifact = {"version": version, "classes": classes, "n_features": int(estimator.n_features_in_)}
+
+    if name == "DecisionTreeClassifier":
+        artifact.update(type="tree_ensemble", trees=[export_tree(estimator)])
+    elif name in ("RandomForestClassifier", "ExtraTreesClassifier"):
+        artifact.update(type="tree_ensemble", trees=[export_tree(t) for t in estimator.estimators_])
+    elif name in ("LogisticRegression", "LinearSVC"):
+        artifact.update(type="linear", coef=estimator.coef_.tolist(),
+                        intercept=np.atleast_1d(estimator.intercept_).tolist(), scaler=scaler)
+    else:
+        raise SystemExit("Unsupported estimator: %s" % name)
+
+    if scaler is not None and artifact["type"] != "linear":
+        raise SystemExit("StandardScaler is only supported in front of linear models")
+    return artifact
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--out", default=os.path.join(script_dir, "orientation_model.json"))
+    parser.add_argument("--fixture")
+    parser.add_argument("--samples", type=int, default=200)
+    args = parser.parse_args()
+
+    model_path = os.path.join(script_dir, "orientation_model.pkl")
+    encoder_path = os.path.join(script_dir, "label_encoder.pkl")
+    model = joblib.load(model_path)
+    encoder = joblib.load(encoder_path)
+    # Same version string predict.py sends in X-Model-Version
+    version = "%d-%d" % (int(os.path.getmtime(model_path)), int(os.path.getmtime(encoder_path)))
+
+    with open(args.out, "w") as f:
+        json.dump(export(model, encoder, version), f)
+    print("Wrote %s" % args.out)
+
+    if args.fixture:
+        rng = np.random.default_rng(42)
+        scores = rng.uniform(0, 100, size=(args.samples, 6)).round(1)
+        study = rng.uniform(0, 30, size=(args.samples, 1)).round(1)
+        absence = rng.integers(0, 20, size=(args.samples, 1))
+        X = np.hstack([scores, study, absence]).astype(float)
+        labels = encoder.inverse_transform(model.predict(X))
+        with open(args.fixture, "w") as f:
+            json.dump({"inputs": X.tolist(), "expected": [str(l) for l in labels]}, f)
+        print("Wrote %s" % args.fixture)
+
+
+if __name__ == "__main__":
+    main()
@@ -19,11 +19,18 @@ try:
     
     model = joblib.load(model_path)
     encoder = joblib.load(encoder_path)
+    # Changes whenever either artifact is replaced; the Java side drops its prediction cache on change
+    model_version = "%d-%d" % (int(os.path.getmtime(model_path)), int(os.path.getmtime(encoder_path)))
     print("Model loaded successfully!")
 except Exception as e:
     print(f"CRITICAL ERROR: Could not load model. {e}")
     sys.exit(1)
 
+@app.after_request
+def add_model_version(response):
+    response.headers['X-Model-Version'] = model_version
+    return response
+
 @app.route('/predict', methods=['POST'])
 def predict():
     try:
@@ -57,6 +64,39 @@ def predict():
     except Exception as e:
         return jsonify({"error": str(e)}), 500
 
+@app.route('/predict/batch', methods=['POST'])
+def predict_batch():
+    try:
+        data = request.json
+        # Expecting {"instances": [[8 features], [8 features], ...]}
+        # Answers {"predictions": [...], "errors": [...]} aligned with the instances;
+        # a malformed row gets an error entry instead of failing the whole chunk.
+
+        if not data or 'instances' not in data:
+            return jsonify({"error": "No instances provided"}), 400
+
+        instances = data['instances']
+        predictions = [None] * len(instances)
+        errors = [None] * len(instances)
+
+        valid = []
+        for i, row in enumerate(instances):
+            if isinstance(row, list) and len(row) == 8:
+                valid.append(i)
+            else:
+                errors[i] = "Expected 8 features"
+
+        if valid:
+            X = np.array([instances[i] for i in valid])
+            labels = encoder.inverse_transform(model.predict(X))
+            for i, label in zip(valid, labels):
+                predictions[i] = str(label)
+
+        return jsonify({"predictions": predictions, "errors": errors})
+
+    except Exception as e:
+        return jsonify({"error": str(e)}), 500
+
 if __name__ == '__main__':
     # Run on port 5000
     app.run(port=5000, debug=False)
@@ -0,0 +1,60 @@
+package com.orientation.config;
+
+import com.orientation.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.LocalDate;
+
+/**
+ * Strong ETags for the user's read endpoints, derived from the user's data
+ * version and today's date (upcoming and "this week" figures move with the
+ * date). A matching If-None-Match is answered 304 before the handler runs, so
+ * it costs an in-memory version lookup, with at most one query per user and
+ * orientation.data-version.ttl.
+ */
+public class DataVersionEtagInterceptor implements HandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+
+    public DataVersionEtagInterceptor(DataVersionService dataVersionService) {
+        this.dataVersionService = dataVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod()))
+            return true;
+        Long userId = CurrentUserArgumentResolver.currentUserId();
+        if (userId == null)
+            return true;
+
+        String etag = "\"" + userId + "-" + dataVersionService.current(userId) + "-"
+                + LocalDate.now().toEpochDay() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Stored by the browser but revalidated on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    // If-None-Match uses weak comparison: a W/ prefix on the client's tag still matches
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null)
+            return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/"))
+                candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(etag))
+                return true;
+        }
+        return false;
+    }
+}
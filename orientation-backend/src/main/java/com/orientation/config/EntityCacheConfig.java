@@ -0,0 +1,47 @@
+package com.orientation.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine-backed JCache regions for Hibernate's second-level and query
+ * caches, sized from orientation.entity-cache.regions. Hibernate is told to
+ * fail on a region that isn't configured rather than create an unbounded one.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    // One manager per application context; the provider would otherwise share it across test contexts
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(OrientationProperties properties) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("orientation-entity-cache-" + UUID.randomUUID()),
+                        getClass().getClassLoader());
+        properties.getEntityCache().getRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            if (region.getTtl() != null)
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            manager.createCache(name, configuration);
+        });
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
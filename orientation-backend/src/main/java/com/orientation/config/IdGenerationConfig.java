@@ -0,0 +1,20 @@
+package com.orientation.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands orientation.ids.allocation-size to {@link PooledSequenceGenerator}
+ * through Hibernate's settings, where the generator can read it while the
+ * mappings are built.
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idAllocationCustomizer(OrientationProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(PooledSequenceGenerator.ALLOCATION_SIZE,
+                properties.getIds().getAllocationSize());
+    }
+}
@@ -0,0 +1,55 @@
+package com.orientation.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Sees every JDBC statement: counts it against the current request and, when
+ * it ran longer than orientation.slow-query.threshold, counts it as slow and
+ * logs a sample of them with their SQL. Replaces spring.jpa.show-sql, which
+ * printed every statement and said nothing about how long it took.
+ */
+public class JdbcMetricsListener implements QueryExecutionListener {
+
+    private static final Logger SLOW_LOG = LoggerFactory.getLogger("com.orientation.sql.slow");
+
+    private final long thresholdMillis;
+
+    private final double sampleRate;
+
+    private final Counter slowStatements;
+
+    public JdbcMetricsListener(OrientationProperties.SlowQuery slowQuery, MeterRegistry meterRegistry) {
+        this.thresholdMillis = slowQuery.getThreshold().toMillis();
+        this.sampleRate = slowQuery.getSampleRate();
+        this.slowStatements = Counter.builder("orientation.jdbc.slow")
+                .description("JDBC statements slower than orientation.slow-query.threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueryCount.increment();
+        if (execInfo.getElapsedTime() < thresholdMillis)
+            return;
+        slowStatements.increment();
+        if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            SLOW_LOG.warn("Slow statement took {} ms{}: {}", execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "", sql);
+        }
+    }
+}
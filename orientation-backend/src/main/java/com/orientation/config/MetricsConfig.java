@@ -0,0 +1,39 @@
+package com.orientation.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC-level instrumentation. Endpoint timers, Hibernate statistics and the
+ * Hikari pool gauges come from Spring Boot's Micrometer support; see the
+ * management.* settings in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Wraps the application DataSource (the routing proxy when a replica is configured) so every
+    // statement passes JdbcMetricsListener. Static, and resolving its dependencies late, because
+    // post-processors are created before ordinary beans.
+    @Bean
+    public static BeanPostProcessor jdbcMetricsDataSourcePostProcessor(ObjectProvider<OrientationProperties> properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource))
+                    return bean;
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("orientation")
+                        .listener(new JdbcMetricsListener(properties.getObject().getSlowQuery(),
+                                meterRegistry.getObject()))
+                        .build();
+            }
+        };
+    }
+}
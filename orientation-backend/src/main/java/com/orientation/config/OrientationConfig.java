@@ -0,0 +1,109 @@
+package com.orientation.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(OrientationProperties.class)
+public class OrientationConfig {
+
+    // Fixed pool: its size is the number of batch chunks in flight to the model server
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService modelBatchExecutor(OrientationProperties properties) {
+        return Executors.newFixedThreadPool(properties.getBatch().getMaxInFlight(), namedThreads("model-batch-"));
+    }
+
+    // Runs /predict requests off the Tomcat threads. The queue is bounded and overflow is
+    // rejected (AbortPolicy), which the controller turns into a 503.
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor modelRequestExecutor(OrientationProperties properties) {
+        OrientationProperties.Async async = properties.getAsync();
+        return new ThreadPoolExecutor(async.getThreads(), async.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(async.getQueueCapacity()), namedThreads("model-request-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Computes the sections of the composite dashboard. When the queue is full the request
+    // thread runs the section itself (CallerRunsPolicy), so overload degrades to sequential.
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor dashboardExecutor(OrientationProperties properties) {
+        OrientationProperties.Dashboard dashboard = properties.getDashboard();
+        return new ThreadPoolExecutor(dashboard.getThreads(), dashboard.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dashboard.getQueueCapacity()), namedThreads("dashboard-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // BCrypt runs here instead of on Tomcat threads, so a login burst can use at most these
+    // cores. Overflow is rejected (AbortPolicy), which AuthController turns into a 429.
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashExecutor(OrientationProperties properties) {
+        OrientationProperties.Auth auth = properties.getAuth();
+        int threads = auth.getHashThreads() > 0 ? auth.getHashThreads() : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(auth.getHashQueueCapacity()), namedThreads("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Keep-alive pool shared by every call to the model server
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager modelConnectionManager(OrientationProperties properties) {
+        OrientationProperties.Model model = properties.getModel();
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(model.getPool().getMaxTotal())
+                .setMaxConnPerRoute(model.getPool().getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(model.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(model.getReadTimeout()))
+                        .setValidateAfterInactivity(TimeValue.of(model.getPool().getValidateAfterInactivity()))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient modelHttpClient(PoolingHttpClientConnectionManager modelConnectionManager,
+            OrientationProperties properties) {
+        OrientationProperties.Model model = properties.getModel();
+        return HttpClients.custom()
+                .setConnectionManager(modelConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(model.getPool().getAcquireTimeout()))
+                        .setResponseTimeout(Timeout.of(model.getReadTimeout()))
+                        .build())
+                .evictIdleConnections(TimeValue.of(model.getPool().getIdleTimeout()))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate modelRestTemplate(CloseableHttpClient modelHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(modelHttpClient));
+    }
+
+    static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
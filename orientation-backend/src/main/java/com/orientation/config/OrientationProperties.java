@@ -0,0 +1,309 @@
+package com.orientation.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "orientation")
+public class OrientationProperties {
+
+    private Predictor predictor = new Predictor();
+
+    private Model model = new Model();
+
+    private Batch batch = new Batch();
+
+    private Cache cache = new Cache();
+
+    private Async async = new Async();
+
+    private Breaker breaker = new Breaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Analytics analytics = new Analytics();
+
+    private Calendar calendar = new Calendar();
+
+    private Paging paging = new Paging();
+
+    private Dashboard dashboard = new Dashboard();
+
+    private Auth auth = new Auth();
+
+    private EntityCache entityCache = new EntityCache();
+
+    private Replica replica = new Replica();
+
+    private SlowQuery slowQuery = new SlowQuery();
+
+    private Ids ids = new Ids();
+
+    private BulkImport bulkImport = new BulkImport();
+
+    private Export export = new Export();
+
+    private DataVersion dataVersion = new DataVersion();
+
+    @Data
+    public static class Predictor {
+        // "remote" calls the Python server, "local" scores in-process from modelPath
+        private String mode = "remote";
+
+        // JSON artifact written by ml/export_model.py, used in local mode
+        private String modelPath = "file:ml/orientation_model.json";
+    }
+
+    @Data
+    public static class Model {
+        // Base URL of the Python model server (predict.py)
+        private String url = "http://127.0.0.1:5000";
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        private Pool pool = new Pool();
+    }
+
+    @Data
+    public static class Pool {
+        private int maxTotal = 20;
+
+        // Everything goes to one host, so this is usually equal to maxTotal
+        private int maxPerRoute = 20;
+
+        // How long a caller waits for a free connection before failing
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        // Idle connections older than this are closed by a background evictor
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        // Idle connections are re-checked before reuse after this long
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Batch {
+        // Inputs sent to the model server in a single /predict/batch call
+        private int chunkSize = 32;
+
+        // Chunk requests allowed in flight at once, shared by all batch callers
+        private int maxInFlight = 4;
+
+        // Largest list accepted by POST /api/orientation/predict/batch
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = true;
+
+        private long maxSize = 10_000;
+
+        private Duration ttl = Duration.ofHours(1);
+
+        // Features are rounded to multiples of this before keying, so 14.96 and 15.02 share an entry
+        private double precision = 0.1;
+    }
+
+    @Data
+    public static class Async {
+        // Worker threads for prediction requests; also the model calls allowed at once from /predict
+        private int threads = 8;
+
+        // Requests waiting for a worker; beyond this the endpoint answers 503
+        private int queueCapacity = 32;
+
+        // Whole request budget, queueing included; exceeded requests answer 504
+        private Duration timeout = Duration.ofSeconds(15);
+    }
+
+    @Data
+    public static class Breaker {
+        // Percentage of failed (or slow) calls in the window that opens the breaker
+        private float failureRateThreshold = 50;
+
+        private float slowCallRateThreshold = 100;
+
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(5);
+
+        // Last N calls considered for the failure rate
+        private int slidingWindowSize = 20;
+
+        private int minimumNumberOfCalls = 10;
+
+        // How long to fail fast before letting probe calls through
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+
+        // Probe calls allowed while half-open; their outcome closes or re-opens the breaker
+        private int permittedCallsInHalfOpenState = 2;
+    }
+
+    @Data
+    public static class Bulkhead {
+        // Model calls allowed in flight at once across single, batch and async paths
+        private int maxConcurrentCalls = 16;
+
+        // Zero means fail immediately when every slot is taken
+        private Duration maxWait = Duration.ZERO;
+    }
+
+    @Data
+    public static class Analytics {
+        // "This week" figures count completions from today minus this many days
+        private int recentDays = 7;
+
+        // Hours history: number of buckets and days per bucket, newest ending today
+        private int historyBuckets = 8;
+
+        private int bucketDays = 7;
+    }
+
+    @Data
+    public static class Calendar {
+        // Month views per (user, year, month); dropped whenever the user's data changes
+        private boolean cacheEnabled = true;
+
+        private long cacheMaxSize = 10_000;
+
+        private Duration cacheTtl = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Paging {
+        // Upper bound for the limit parameter of paged listings
+        private int maxLimit = 200;
+    }
+
+    @Data
+    public static class Dashboard {
+        // Threads computing the sections of /api/dashboard/all; a full queue runs work on the caller
+        private int threads = 4;
+
+        private int queueCapacity = 64;
+
+        // Budget for the whole composite response; exceeded requests answer 503
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Auth {
+        // HMAC key for session tokens; blank means a random key per process, so tokens end with a restart
+        private String tokenSecret = "";
+
+        private Duration tokenTtl = Duration.ofHours(12);
+
+        // Tokens already verified, so repeat requests skip the HMAC; also bounds the /me profile cache
+        private long verifiedCacheSize = 10_000;
+
+        // BCrypt log rounds for new hashes; stored hashes below it are upgraded at the next login
+        private int bcryptStrength = 10;
+
+        // Password hashing threads; 0 means one per core, since each hash keeps a core busy
+        private int hashThreads = 0;
+
+        // Hashes waiting for a thread; beyond this register and login answer 429
+        private int hashQueueCapacity = 64;
+
+        // Whole hashing budget, queueing included; exceeded requests answer 503
+        private Duration hashTimeout = Duration.ofSeconds(10);
+
+        // Users whose session tokens carry ROLE_ADMIN, required by the /api/admin maintenance endpoints
+        private Set<Long> adminUserIds = new HashSet<>();
+    }
+
+    @Data
+    public static class EntityCache {
+        // Hibernate second-level and query cache regions by name; each named region must be listed
+        private Map<String, Region> regions = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Region {
+        private long maxSize = 10_000;
+
+        // Unset means entries live until evicted by size; query regions should expire no later than
+        // the entity regions they point into, or a hit falls back to one load per entity
+        private Duration ttl;
+    }
+
+    @Data
+    public static class Replica {
+        // Off: one pool, everything on spring.datasource. On: read-only transactions go to the replica
+        private boolean enabled = false;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        // Sized apart from the primary's spring.datasource.hikari.maximum-pool-size
+        private int maximumPoolSize = 10;
+
+        // Kept short: a replica that can't hand out a connection sends the read to the primary
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        // Reads stay on the primary while the replica is further behind than this
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        private Duration checkInterval = Duration.ofSeconds(5);
+
+        // One row, one column: replication lag in milliseconds. Zero when all received WAL is replayed,
+        // otherwise the age of the last replayed transaction
+        private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+                + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+    }
+
+    @Data
+    public static class SlowQuery {
+        // Statements at least this slow are counted (orientation.jdbc.slow) and may be logged
+        private Duration threshold = Duration.ofMillis(200);
+
+        // Share of slow statements written to the com.orientation.sql.slow log; 1 logs every one
+        private double sampleRate = 0.1;
+    }
+
+    @Data
+    public static class Ids {
+        // Ids taken per sequence call; each entity sequence's INCREMENT BY (V6 and V7 migrations) must match
+        private int allocationSize = 50;
+    }
+
+    @Data
+    public static class BulkImport {
+        // Rows written per transaction; a task or subject is never split from its children
+        private int chunkSize = 500;
+
+        // Subtasks under one task, or exams under one subject, in a single import
+        private int maxChildren = 1000;
+
+        // Longest CSV record or NDJSON line; longer ones are rejected and skipped
+        private int maxRecordLength = 65_536;
+
+        // Row errors listed in the report; further rejected rows are only counted
+        private int maxErrors = 1000;
+    }
+
+    @Data
+    public static class Export {
+        // Replaces spring.mvc.async.request-timeout for GET /api/export, which streams a whole history
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class DataVersion {
+        // Users whose ETag version is held in memory
+        private long maxSize = 100_000;
+
+        // Age at which a held version is read again from user_data_versions, picking up other instances' writes
+        private Duration ttl = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,39 @@
+package com.orientation.config;
+
+import com.orientation.model.PooledSequence;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Hibernate's sequence generator with the pooled optimizer, its block size
+ * taken from the {@link #ALLOCATION_SIZE} setting rather than fixed in each
+ * entity's annotation. One nextval covers a whole block: ids run from the
+ * returned value minus the block size, exclusive, up to the value itself.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    // Hibernate setting, filled from orientation.ids.allocation-size
+    public static final String ALLOCATION_SIZE = "orientation.ids.allocation_size";
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.sequenceName = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSettings().get(ALLOCATION_SIZE);
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize != null ? allocationSize : DEFAULT_INCREMENT_SIZE));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
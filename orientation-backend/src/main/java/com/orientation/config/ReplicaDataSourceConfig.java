@@ -0,0 +1,67 @@
+package com.orientation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and replica connection pools behind one routing DataSource, active
+ * when orientation.replica.enabled is set; otherwise Spring Boot's single pool
+ * on spring.datasource is used as before. Flyway and every write go to the
+ * primary, which keeps its spring.datasource.hikari.* settings. Connections go
+ * back after each transaction (spring.jpa.properties.hibernate.connection.handling_mode),
+ * so a write after a routed read in the same request doesn't reuse the read's.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "orientation.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource replicaDataSource(OrientationProperties properties) {
+        OrientationProperties.Replica replica = properties.getReplica();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        // Start even if the replica is down; reads stay on the primary until a health check passes
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public ReplicaHealthMonitor replicaHealthMonitor(HikariDataSource replicaDataSource,
+            OrientationProperties properties) {
+        return new ReplicaHealthMonitor(replicaDataSource, properties.getReplica());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource, ReplicaHealthMonitor replicaHealthMonitor) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaHealthMonitor);
+    }
+
+    // Defers the routing decision from transaction begin to the first statement
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,92 @@
+package com.orientation.config;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica's replication lag. The replica takes reads only while the
+ * last check succeeded and found it within orientation.replica.max-lag; it
+ * starts out unavailable, so nothing is routed to it before the first check.
+ */
+public class ReplicaHealthMonitor {
+
+    private final DataSource replica;
+
+    private final String lagQuery;
+
+    private final long maxLagMillis;
+
+    private final Duration interval;
+
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean available;
+
+    private volatile long lagMillis = -1;
+
+    private volatile String lastError;
+
+    private volatile long lastCheckedAt;
+
+    public ReplicaHealthMonitor(DataSource replica, OrientationProperties.Replica properties) {
+        this.replica = replica;
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.interval = properties.getCheckInterval();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(OrientationConfig.namedThreads("replica-health-"));
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void check() {
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement()) {
+            // A check that outlives its interval counts as a failure
+            statement.setQueryTimeout((int) Math.max(1, interval.toSeconds()));
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                rs.next();
+                lagMillis = rs.getLong(1);
+            }
+            lastError = lagMillis > maxLagMillis ? "lagging " + lagMillis + "ms" : null;
+            available = lagMillis <= maxLagMillis;
+        } catch (SQLException | RuntimeException e) {
+            markDown(e);
+        }
+        lastCheckedAt = System.currentTimeMillis();
+    }
+
+    // Also called when a routed read can't get a replica connection; the next good check restores it
+    public void markDown(Exception cause) {
+        available = false;
+        lastError = cause.getMessage();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("available", available);
+        stats.put("lagMillis", lagMillis);
+        stats.put("maxLagMillis", maxLagMillis);
+        stats.put("lastError", lastError);
+        stats.put("lastCheckedAt", lastCheckedAt);
+        return stats;
+    }
+}
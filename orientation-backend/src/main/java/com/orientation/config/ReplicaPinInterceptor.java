@@ -0,0 +1,46 @@
+package com.orientation.config;
+
+import com.orientation.service.DataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for replica routing: a user whose last write is younger
+ * than the replica may lag (max lag plus one check interval) has the request
+ * pinned to the primary. Otherwise a response could pair the new data version
+ * (and ETag) with data the replica hasn't replayed yet.
+ */
+public class ReplicaPinInterceptor implements AsyncHandlerInterceptor {
+
+    private final DataVersionService dataVersionService;
+
+    private final Duration window;
+
+    public ReplicaPinInterceptor(DataVersionService dataVersionService, OrientationProperties.Replica replica) {
+        this.dataVersionService = dataVersionService;
+        this.window = replica.getMaxLag().plus(replica.getCheckInterval());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = CurrentUserArgumentResolver.currentUserId();
+        if (userId != null && dataVersionService.changedWithin(userId, window))
+            ReplicaRouting.pinPrimary();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ReplicaRouting.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReplicaRouting.clear();
+    }
+}
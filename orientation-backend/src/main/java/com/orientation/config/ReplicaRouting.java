@@ -0,0 +1,42 @@
+package com.orientation.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that keeps read-only transactions on the primary, set
+ * for a request whose user wrote recently enough that the replica may not
+ * have the write yet.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+
+    public static boolean isPrimaryPinned() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    // Carries the calling thread's pin into work handed to an executor
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        if (!isPrimaryPinned())
+            return work;
+        return () -> {
+            pinPrimary();
+            try {
+                return work.get();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
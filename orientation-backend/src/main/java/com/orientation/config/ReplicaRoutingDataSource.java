@@ -0,0 +1,122 @@
+package com.orientation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for declared {@code @Transactional(readOnly = true)} work
+ * to the replica pool and everything else to the primary. Sits behind a
+ * LazyConnectionDataSourceProxy, so the choice is made at the first statement,
+ * once the transaction's read-only flag is known.
+ *
+ * <p>Spring Data's own per-method read-only transactions stay on the primary:
+ * they back the reads that feed writes (load then save, the register email
+ * check, login), which must not see replica lag. Reads also stay on the
+ * primary when the replica is unhealthy or the request is pinned by
+ * {@link ReplicaRouting}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = SimpleJpaRepository.class.getName() + ".";
+
+    private final HikariDataSource primary;
+
+    private final HikariDataSource replica;
+
+    private final ReplicaHealthMonitor health;
+
+    private final LongAdder primaryConnections = new LongAdder();
+
+    private final LongAdder replicaConnections = new LongAdder();
+
+    // Replica-eligible reads that went to the primary: replica down or lagging, or the request pinned
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaHealthMonitor health) {
+        this.primary = primary;
+        this.replica = replica;
+        this.health = health;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaEligible() && replicaUsable() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaEligible()) {
+            if (replicaUsable()) {
+                try {
+                    Connection connection = replica.getConnection();
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    // Don't wait for the next health check to stop sending reads there
+                    health.markDown(e);
+                }
+            }
+            fallbacks.increment();
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> routing = new LinkedHashMap<>();
+        routing.put("primaryConnections", primaryConnections.sum());
+        routing.put("replicaConnections", replicaConnections.sum());
+        routing.put("fallbacks", fallbacks.sum());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaEnabled", true);
+        stats.put("routing", routing);
+        stats.put("replica", health.stats());
+        Map<String, Object> pools = new LinkedHashMap<>();
+        pools.put("primary", poolStats(primary));
+        pools.put("replica", poolStats(replica));
+        stats.put("pools", pools);
+        return stats;
+    }
+
+    private static boolean replicaEligible() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            return false;
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || !name.startsWith(REPOSITORY_TRANSACTION_PREFIX);
+    }
+
+    private boolean replicaUsable() {
+        return health.isAvailable() && !ReplicaRouting.isPrimaryPinned();
+    }
+
+    public static Map<String, Object> poolStats(HikariDataSource dataSource) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", dataSource.getPoolName());
+        stats.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+        // Null until the pool has handed out its first connection
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("waiting", pool.getThreadsAwaitingConnection());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,48 @@
+package com.orientation.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * JDBC statements run on behalf of the current request, counted by
+ * {@link JdbcMetricsListener} on the request thread and on any thread the
+ * request's work was handed to with {@link #propagate}.
+ */
+public final class RequestQueryCount {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    private RequestQueryCount() {
+    }
+
+    public static void start() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    // Count so far, or -1 when no request is being counted on this thread; stops counting
+    public static int finish() {
+        AtomicInteger count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count.get();
+    }
+
+    static void increment() {
+        AtomicInteger count = COUNT.get();
+        if (count != null)
+            count.incrementAndGet();
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        AtomicInteger count = COUNT.get();
+        if (count == null)
+            return work;
+        return () -> {
+            COUNT.set(count);
+            try {
+                return work.get();
+            } finally {
+                COUNT.remove();
+            }
+        };
+    }
+}
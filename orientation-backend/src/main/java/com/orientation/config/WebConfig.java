@@ -0,0 +1,44 @@
+package com.orientation.config;
+
+import com.orientation.service.DataVersionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final DataVersionService dataVersionService;
+
+    private final OrientationProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public WebConfig(DataVersionService dataVersionService, OrientationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.dataVersionService = dataVersionService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Responses under these paths depend only on the user's tasks and grades (and the date)
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so requests answered 304 by the ETag check are still counted
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry)).addPathPatterns("/api/**");
+        registry.addInterceptor(new DataVersionEtagInterceptor(dataVersionService))
+                .addPathPatterns("/api/dashboard/**", "/api/tasks/analytics/**", "/api/grades/**");
+        if (properties.getReplica().isEnabled())
+            registry.addInterceptor(new ReplicaPinInterceptor(dataVersionService, properties.getReplica()))
+                    .addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
@@ -1,13 +1,26 @@
 package com.orientation.controller;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orientation.config.CurrentUser;
+import com.orientation.config.OrientationProperties;
 import com.orientation.model.User;
+import com.orientation.model.UserView;
 import com.orientation.repository.UserRepository;
+import com.orientation.service.PasswordHashService;
+import com.orientation.service.SessionTokenService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -18,51 +31,86 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashService passwordHashService;
 
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private OrientationProperties properties;
+
+    // Profiles for /me; users are never edited or deleted, so an entry can't go stale
+    private Cache<Long, UserView> profiles;
+
+    @PostConstruct
+    void init() {
+        profiles = Caffeine.newBuilder()
+                .maximumSize(properties.getAuth().getVerifiedCacheSize())
+                .build();
+    }
+
+    // Hashing runs on passwordHashExecutor; the servlet thread is released meanwhile
     @PostMapping("/register")
-    public Map<String, Object> register(@RequestBody Map<String, String> body) {
+    public CompletableFuture<Map<String, Object>> register(@RequestBody Map<String, String> body) {
         String email = body.get("email");
         String password = body.get("password");
         String name = body.get("name");
 
-        Map<String, Object> response = new HashMap<>();
-
         if (userRepository.existsByEmail(email)) {
+            Map<String, Object> response = new HashMap<>();
             response.put("success", false);
             response.put("message", "Email already registered");
-            return response;
+            return CompletableFuture.completedFuture(response);
         }
 
-        User user = new User();
-        user.setEmail(email);
-        user.setPassword(passwordEncoder.encode(password));
-        user.setName(name);
-        userRepository.save(user);
+        return passwordHashService.encode(password).thenApply(hash -> {
+            User user = new User();
+            user.setEmail(email);
+            user.setPassword(hash);
+            user.setName(name);
+            userRepository.save(user);
 
-        response.put("success", true);
-        response.put("user", sanitizeUser(user));
-        return response;
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            putSession(response, user);
+            return response;
+        });
     }
 
     @PostMapping("/login")
-    public Map<String, Object> login(@RequestBody Map<String, String> body) {
+    public CompletableFuture<Map<String, Object>> login(@RequestBody Map<String, String> body) {
         String email = body.get("email");
         String password = body.get("password");
 
-        Map<String, Object> response = new HashMap<>();
-
         User user = userRepository.findByEmail(email).orElse(null);
-
-        if (user == null || !passwordEncoder.matches(password, user.getPassword())) {
-            response.put("success", false);
-            response.put("message", "Invalid email or password");
+        if (user == null)
+            return CompletableFuture.completedFuture(loginFailed());
+
+        return passwordHashService.verify(password, user.getPassword()).thenApply(verification -> {
+            if (!verification.matches())
+                return loginFailed();
+            // Hash made at a lower strength than configured: store the stronger one
+            if (verification.upgradedHash() != null)
+                userRepository.updatePassword(user.getId(), verification.upgradedHash());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            putSession(response, user);
             return response;
-        }
+        });
+    }
 
-        response.put("success", true);
-        response.put("user", sanitizeUser(user));
-        return response;
+    private static Map<String, Object> loginFailed() {
+        return failure("Invalid email or password");
+    }
+
+    private void putSession(Map<String, Object> response, User user) {
+        UserView view = UserView.of(user);
+        profiles.put(user.getId(), view);
+        String token = sessionTokenService.issue(user.getId());
+        response.put("user", view);
+        response.put("token", token);
+        response.put("expiresAt", sessionTokenService.expiresAt(token));
     }
 
     @PostMapping("/logout")
@@ -73,38 +121,40 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public Map<String, Object> getCurrentUser(
-            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader) {
+    public Map<String, Object> getCurrentUser(@CurrentUser Long userId) {
         Map<String, Object> response = new HashMap<>();
 
-        if (userIdHeader == null || userIdHeader.isEmpty()) {
+        UserView user = userId == null ? null
+                : profiles.get(userId, id -> userRepository.findById(id).map(UserView::of).orElse(null));
+        if (user == null) {
             response.put("loggedIn", false);
             return response;
         }
 
-        try {
-            Long userId = Long.parseLong(userIdHeader);
-            User user = userRepository.findById(userId).orElse(null);
-            if (user == null) {
-                response.put("loggedIn", false);
-                return response;
-            }
+        response.put("loggedIn", true);
+        response.put("user", user);
+        return response;
+    }
+
+    // Hash queue full: the client should back off rather than wait on a busy server
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleSaturated(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(failure("Too many sign-ins right now, retry shortly"));
+    }
 
-            response.put("loggedIn", true);
-            response.put("user", sanitizeUser(user));
-            return response;
-        } catch (NumberFormatException e) {
-            response.put("loggedIn", false);
-            return response;
-        }
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleTimeout(TimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(failure("Sign-in timed out, retry shortly"));
     }
 
-    private Map<String, Object> sanitizeUser(User user) {
-        Map<String, Object> safe = new HashMap<>();
-        safe.put("id", user.getId());
-        safe.put("email", user.getEmail());
-        safe.put("name", user.getName());
-        safe.put("createdAt", user.getCreatedAt());
-        return safe;
+    private static Map<String, Object> failure(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", message);
+        return response;
     }
 }
@@ -0,0 +1,21 @@
+package com.orientation.controller;
+
+import com.orientation.service.EntityCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Hibernate second-level and query cache regions
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheAdminController {
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return entityCacheService.stats();
+    }
+}
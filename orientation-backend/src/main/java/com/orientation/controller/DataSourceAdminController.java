@@ -0,0 +1,21 @@
+package com.orientation.controller;
+
+import com.orientation.service.DataSourceStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Primary and replica connection pools and read routing
+@RestController
+@RequestMapping("/api/admin/datasource")
+public class DataSourceAdminController {
+
+    @Autowired
+    private DataSourceStatsService dataSourceStatsService;
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return dataSourceStatsService.stats();
+    }
+}
@@ -0,0 +1,92 @@
+package com.orientation.controller;
+
+import com.orientation.config.CurrentUser;
+import com.orientation.config.OrientationProperties;
+import com.orientation.config.ReplicaRouting;
+import com.orientation.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private static final int GZIP_BUFFER = 8192;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private OrientationProperties properties;
+
+    // Written from an MVC async thread as rows are read; compressed on the way out when the client accepts gzip
+    @GetMapping(produces = ImportController.NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportHistory(@CurrentUser Long userId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        if (userId == null)
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in to export");
+        boolean gzip = acceptsGzip(acceptEncoding);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(properties.getExport().getTimeout().toMillis());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ImportController.NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orientation-export.ndjson\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip)
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER) : out;
+            // Keeps a recent writer's export on the primary, as on the request thread
+            Supplier<Void> export = ReplicaRouting.propagate(() -> {
+                try {
+                    exportService.writeHistory(userId, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+            try {
+                export.get();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (target instanceof GZIPOutputStream compressed)
+                compressed.finish();
+        });
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null)
+            return false;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equals("gzip"))
+                continue;
+            // gzip;q=0 means not acceptable
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().matches("q=0(\\.0*)?"))
+                    return false;
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -1,12 +1,19 @@
 package com.orientation.controller;
 
+import com.orientation.config.CurrentUser;
+import com.orientation.model.CursorPage;
 import com.orientation.model.Subject;
 import com.orientation.model.Exam;
 import com.orientation.repository.SubjectRepository;
+import com.orientation.service.ListingService;
+import com.orientation.service.UserDataChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -19,49 +26,58 @@ public class GradeController {
     @Autowired
     private SubjectRepository subjectRepository;
 
-    private Long getUserId(HttpServletRequest request) {
-        String userId = request.getHeader("X-User-Id");
-        if (userId == null || userId.isEmpty())
-            return null;
-        try {
-            return Long.parseLong(userId);
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ListingService listingService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     // ===== SUBJECTS =====
 
     @GetMapping("/subjects")
-    public List<Subject> getAllSubjects(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public List<Subject> getAllSubjects(@CurrentUser Long userId) {
         if (userId == null)
             return List.of();
-        return subjectRepository.findByUserIdOrderByYearAscNameAsc(userId);
+        return subjectRepository.findWithExamsByUserIdOrderByYearAscNameAsc(userId);
+    }
+
+    // Paged variant, picked when the client sends a limit; the plain listing above stays as it was
+    @GetMapping(value = "/subjects", params = "limit")
+    public CursorPage<Subject> getSubjectsPage(@RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(defaultValue = "true") boolean includeExams,
+            @CurrentUser Long userId) {
+        int pageSize = listingService.clampLimit(limit);
+        if (userId == null)
+            return new CursorPage<>(List.of(), null);
+        return listingService.subjects(userId, year, cursor, pageSize, includeExams);
     }
 
     @GetMapping("/subjects/year/{year}")
-    public List<Subject> getSubjectsByYear(@PathVariable int year, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public List<Subject> getSubjectsByYear(@PathVariable int year, @CurrentUser Long userId) {
         if (userId == null)
             return List.of();
-        return subjectRepository.findByUserId(userId).stream()
+        return subjectRepository.findWithExamsByUserId(userId).stream()
                 .filter(s -> s.getYear() == year)
                 .collect(Collectors.toList());
     }
 
     @PostMapping("/subjects")
-    public Subject createSubject(@RequestBody Subject subject, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public Subject createSubject(@RequestBody Subject subject, @CurrentUser Long userId) {
         if (userId == null)
             return null;
         subject.setUserId(userId);
-        return subjectRepository.save(subject);
+        Subject saved = subjectRepository.save(subject);
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+        return saved;
     }
 
     @PutMapping("/subjects/{id}")
-    public Subject updateSubject(@PathVariable Long id, @RequestBody Subject updated, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public Subject updateSubject(@PathVariable Long id, @RequestBody Subject updated, @CurrentUser Long userId) {
         return subjectRepository.findById(id).map(subject -> {
             if (userId == null || !userId.equals(subject.getUserId()))
                 return null;
@@ -70,32 +86,41 @@ public class GradeController {
             subject.setYear(updated.getYear());
             subject.setTeacher(updated.getTeacher());
             subject.setAbsenceDays(updated.getAbsenceDays());
-            return subjectRepository.save(subject);
+            Subject saved = subjectRepository.save(subject);
+            eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Subject not found"));
     }
 
     @DeleteMapping("/subjects/{id}")
-    public void deleteSubject(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public void deleteSubject(@PathVariable Long id, @CurrentUser Long userId) {
         subjectRepository.findById(id).ifPresent(subject -> {
             if (userId != null && userId.equals(subject.getUserId())) {
                 subjectRepository.deleteById(id);
+                eventPublisher.publishEvent(new UserDataChangedEvent(userId));
             }
         });
     }
 
     // ===== EXAMS =====
 
+    // Exam writes also move the subject's running grade sums, in the same transaction and in place;
+    // the subject is then read back so the response carries the sums as stored
     @PostMapping("/subjects/{subjectId}/exams")
+    @Transactional
     public Subject addExam(@PathVariable Long subjectId, @RequestBody Exam exam) {
         Subject subject = subjectRepository.findById(subjectId)
                 .orElseThrow(() -> new RuntimeException("Subject not found"));
         exam.setSubject(subject);
         subject.getExams().add(exam);
-        return subjectRepository.save(subject);
+        subjectRepository.addToTotals(subjectId, exam.getGrade(), exam.getMaxGrade(), 1);
+        eventPublisher.publishEvent(new UserDataChangedEvent(subject.getUserId()));
+        entityManager.refresh(subject);
+        return subject;
     }
 
     @PutMapping("/subjects/{subjectId}/exams/{examId}")
+    @Transactional
     public Subject updateExam(@PathVariable Long subjectId, @PathVariable Long examId, @RequestBody Exam updated) {
         Subject subject = subjectRepository.findById(subjectId)
                 .orElseThrow(() -> new RuntimeException("Subject not found"));
@@ -105,47 +130,56 @@ public class GradeController {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Exam not found"));
 
+        double oldGrade = exam.getGrade();
+        double oldMaxGrade = exam.getMaxGrade();
         exam.setName(updated.getName());
         exam.setType(updated.getType());
         exam.setDate(updated.getDate());
         exam.setGrade(updated.getGrade());
         exam.setMaxGrade(updated.getMaxGrade());
+        subjectRepository.addToTotals(subjectId, exam.getGrade() - oldGrade, exam.getMaxGrade() - oldMaxGrade, 0);
 
-        return subjectRepository.save(subject);
+        eventPublisher.publishEvent(new UserDataChangedEvent(subject.getUserId()));
+        entityManager.refresh(subject);
+        return subject;
     }
 
     @DeleteMapping("/subjects/{subjectId}/exams/{examId}")
+    @Transactional
     public Subject deleteExam(@PathVariable Long subjectId, @PathVariable Long examId) {
         Subject subject = subjectRepository.findById(subjectId)
                 .orElseThrow(() -> new RuntimeException("Subject not found"));
-        subject.getExams().removeIf(e -> e.getId().equals(examId));
-        return subjectRepository.save(subject);
+        subject.getExams().stream()
+                .filter(e -> e.getId().equals(examId))
+                .findFirst()
+                .ifPresent(exam -> {
+                    subject.getExams().remove(exam);
+                    subjectRepository.addToTotals(subjectId, -exam.getGrade(), -exam.getMaxGrade(), -1);
+                });
+        eventPublisher.publishEvent(new UserDataChangedEvent(subject.getUserId()));
+        entityManager.refresh(subject);
+        return subject;
     }
 
     // ===== ANALYTICS =====
 
     @GetMapping("/analytics/year-averages")
-    public Map<Integer, Double> getYearAverages(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    @Transactional(readOnly = true)
+    public Map<Integer, Double> getYearAverages(@CurrentUser Long userId) {
         if (userId == null)
             return Map.of();
-        List<Subject> subjects = subjectRepository.findByUserId(userId);
-
-        return subjects.stream()
-                .filter(s -> s.getAverage() != null)
-                .collect(Collectors.groupingBy(
-                        Subject::getYear,
-                        Collectors.averagingDouble(Subject::getAverage)));
+        return subjectRepository.findYearAverages(userId);
     }
 
     @GetMapping("/analytics/year/{year}/ml-data")
-    public Map<String, Object> getYearMLData(@PathVariable int year, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    @Transactional(readOnly = true)
+    public Map<String, Object> getYearMLData(@PathVariable int year, @CurrentUser Long userId) {
         if (userId == null)
             return Map.of();
-        List<Subject> subjects = subjectRepository.findByUserId(userId).stream()
+        // Filtered here so the read shares the cached per-user subject query
+        List<Subject> subjects = subjectRepository.findByUserIdOrderByYearAscNameAsc(userId).stream()
                 .filter(s -> s.getYear() == year)
-                .collect(Collectors.toList());
+                .toList();
 
         Map<String, Object> result = new java.util.HashMap<>();
 
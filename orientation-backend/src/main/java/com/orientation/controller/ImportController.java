@@ -0,0 +1,53 @@
+package com.orientation.controller;
+
+import com.orientation.config.CurrentUser;
+import com.orientation.model.ImportReport;
+import com.orientation.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*")
+public class ImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ImportService importService;
+
+    // The body is read straight from the request as the rows are written, never held whole
+    @PostMapping(consumes = "text/csv")
+    public ImportReport importCsv(@CurrentUser Long userId, HttpServletRequest request) throws IOException {
+        return importService.importCsv(requireUser(userId), reader(request));
+    }
+
+    @PostMapping(consumes = NDJSON)
+    public ImportReport importNdjson(@CurrentUser Long userId, HttpServletRequest request) throws IOException {
+        return importService.importNdjson(requireUser(userId), reader(request));
+    }
+
+    private static Long requireUser(Long userId) {
+        if (userId == null)
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in to import");
+        return userId;
+    }
+
+    // UTF-8 unless the request names a charset; the servlet default would be ISO-8859-1
+    private static Reader reader(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null
+                ? Charset.forName(request.getCharacterEncoding())
+                : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(request.getInputStream(), charset));
+    }
+}
@@ -0,0 +1,58 @@
+package com.orientation.controller;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.service.ModelServerGuard;
+import com.orientation.service.PredictionCache;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Model server connections, prediction cache, request executor and circuit breaker
+@RestController
+@RequestMapping("/api/admin/model")
+public class ModelAdminController {
+
+    @Autowired
+    private OrientationProperties properties;
+
+    @Autowired
+    private PoolingHttpClientConnectionManager modelConnectionManager;
+
+    @Autowired
+    private PredictionCache predictionCache;
+
+    @Autowired
+    private ModelServerGuard modelServerGuard;
+
+    @Autowired
+    @Qualifier("modelRequestExecutor")
+    private ThreadPoolExecutor modelRequestExecutor;
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        PoolStats pool = modelConnectionManager.getTotalStats();
+        Map<String, Object> connections = new LinkedHashMap<>();
+        connections.put("leased", pool.getLeased());
+        connections.put("pending", pool.getPending());
+        connections.put("idle", pool.getAvailable());
+        connections.put("max", pool.getMax());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", connections);
+        stats.put("cache", predictionCache.stats());
+
+        Map<String, Object> requests = new LinkedHashMap<>();
+        requests.put("active", modelRequestExecutor.getActiveCount());
+        requests.put("queued", modelRequestExecutor.getQueue().size());
+        requests.put("queueCapacity", properties.getAsync().getQueueCapacity());
+        stats.put("requests", requests);
+        stats.put("modelServer", modelServerGuard.stats());
+        return stats;
+    }
+}
@@ -1,12 +1,31 @@
 package com.orientation.controller;
 
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.PredictionResult;
 import com.orientation.model.StudentInput;
+import com.orientation.service.ModelUnavailableException;
 import com.orientation.service.OrientationService;
+import com.orientation.service.PredictionFailedException;
+import com.orientation.service.PredictionRejectedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/orientation")
@@ -16,9 +35,81 @@ public class OrientationController {
     @Autowired
     private OrientationService orientationService;
 
+    @Autowired
+    private OrientationProperties properties;
+
+    @Autowired
+    @Qualifier("modelRequestExecutor")
+    private ThreadPoolExecutor modelRequestExecutor;
+
+    // Runs on modelRequestExecutor; the servlet thread is released while the model works
     @PostMapping("/predict")
-    public Map<String, String> predict(@RequestBody StudentInput input) {
-        String result = orientationService.predictOrientation(input);
-        return Collections.singletonMap("recommendedField", result);
+    public CompletableFuture<Map<String, String>> predict(@RequestBody StudentInput input) {
+        return async(() -> Collections.singletonMap("recommendedField", orientationService.predictOrientation(input)));
+    }
+
+    @PostMapping("/predict/batch")
+    public CompletableFuture<List<PredictionResult>> predictBatch(@RequestBody List<StudentInput> inputs) {
+        if (inputs.size() > properties.getBatch().getMaxSize())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch too large: at most " + properties.getBatch().getMaxSize() + " inputs per request");
+        return async(() -> orientationService.predictBatch(inputs));
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, modelRequestExecutor)
+                .orTimeout(properties.getAsync().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleSaturated(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error(HttpStatus.SERVICE_UNAVAILABLE, "Prediction capacity exhausted, retry shortly"));
+    }
+
+    // Breaker open, bulkhead full or server unreachable: retry once the breaker may have half-opened
+    @ExceptionHandler(ModelUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleModelUnavailable(ModelUnavailableException e) {
+        Map<String, Object> body = error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        body.put("breakerState", e.getBreakerState());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, properties.getBreaker().getWaitInOpenState().toSeconds())))
+                .body(body);
+    }
+
+    // The model would not score this input; batch requests report the same per item instead
+    @ExceptionHandler(PredictionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(PredictionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(error(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage()));
+    }
+
+    // A 4xx from the model server means the request this service built was wrong, not the client's
+    @ExceptionHandler(HttpClientErrorException.class)
+    public ResponseEntity<Map<String, Object>> handleModelClientError(HttpClientErrorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(error(HttpStatus.BAD_GATEWAY, "Model server refused the request (" + e.getStatusCode().value() + ")"));
+    }
+
+    // Already logged by the service
+    @ExceptionHandler(PredictionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleFailed(PredictionFailedException e) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()));
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleTimeout(TimeoutException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(error(HttpStatus.GATEWAY_TIMEOUT, "Prediction timed out"));
+    }
+
+    private static Map<String, Object> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("error", message);
+        return body;
     }
 }
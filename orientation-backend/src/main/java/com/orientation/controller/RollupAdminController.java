@@ -0,0 +1,38 @@
+package com.orientation.controller;
+
+import com.orientation.service.StudyHoursRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maintenance of the study_hours_daily rollup
+@RestController
+@RequestMapping("/api/admin/rollup")
+public class RollupAdminController {
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    // Recompute the whole table from tasks and subtasks
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild() {
+        long start = System.nanoTime();
+        int users = rollupService.rebuild();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("users", users);
+        result.put("millis", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    @GetMapping("/check")
+    public Map<String, Object> check() {
+        List<Map<String, Object>> mismatches = rollupService.check();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("consistent", mismatches.isEmpty());
+        result.put("mismatches", mismatches);
+        return result;
+    }
+}
@@ -1,13 +1,26 @@
 package com.orientation.controller;
 
+import com.orientation.config.CurrentUser;
+import com.orientation.model.CursorPage;
 import com.orientation.model.Task;
+import com.orientation.model.WeekHours;
 import com.orientation.model.SubTask;
+import com.orientation.model.enums.TaskPriority;
 import com.orientation.model.enums.TaskStatus;
 import com.orientation.repository.TaskRepository;
+import com.orientation.service.ListingService;
+import com.orientation.service.StudyAnalyticsService;
+import com.orientation.service.StudyHoursRollupService;
+import com.orientation.service.TaskStreamService;
+import com.orientation.service.UserDataChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -19,46 +32,77 @@ public class TaskController {
     @Autowired
     private TaskRepository taskRepository;
 
-    private Long getUserId(HttpServletRequest request) {
-        String userId = request.getHeader("X-User-Id");
-        if (userId == null || userId.isEmpty())
-            return null;
-        try {
-            return Long.parseLong(userId);
-        } catch (NumberFormatException e) {
-            return null;
+    @Autowired
+    private StudyAnalyticsService studyAnalyticsService;
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    // Unbounded, so written to the response as rows are read rather than built up as a list
+    @GetMapping
+    public void getAllTasks(@CurrentUser Long userId, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (userId == null) {
+            response.getWriter().write("[]");
+            return;
         }
+        taskStreamService.writeTasks(userId, response.getOutputStream());
     }
 
-    @GetMapping
-    public List<Task> getAllTasks(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    // Paged variant, picked when the client sends a limit; the plain listing above stays as it was
+    @GetMapping(params = "limit")
+    public CursorPage<Task> getTasksPage(@RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) TaskPriority priority,
+            @RequestParam(required = false) LocalDate dueFrom,
+            @RequestParam(required = false) LocalDate dueTo,
+            @RequestParam(defaultValue = "true") boolean includeSubTasks,
+            @CurrentUser Long userId) {
+        int pageSize = listingService.clampLimit(limit);
         if (userId == null)
-            return List.of();
-        return taskRepository.findByUserId(userId);
+            return new CursorPage<>(List.of(), null);
+        ListingService.TaskFilter filter = new ListingService.TaskFilter(status, priority, dueFrom, dueTo);
+        return listingService.tasks(userId, filter, cursor, pageSize, includeSubTasks);
     }
 
     @GetMapping("/{id}")
-    public Task getTaskById(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public Task getTaskById(@PathVariable Long id, @CurrentUser Long userId) {
         Task task = taskRepository.findById(id).orElse(null);
         if (task == null || userId == null || !userId.equals(task.getUserId()))
             return null;
         return task;
     }
 
+    // Write endpoints are transactional so the rollup moves together with the task
     @PostMapping
-    public Task createTask(@RequestBody Task task, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    @Transactional
+    public Task createTask(@RequestBody Task task, @CurrentUser Long userId) {
         if (userId == null)
             return null;
         task.setUserId(userId);
-        return taskRepository.save(task);
+        // Only imports may backdate a task; a posted one is created today
+        task.setCreatedAt(null);
+        Task saved = taskRepository.save(task);
+        rollupService.apply(userId, Map.of(), rollupService.contributions(saved));
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+        return saved;
     }
 
     @PutMapping("/{id}")
+    @Transactional
     public Task updateTask(@PathVariable Long id, @RequestBody Task updatedTask) {
         return taskRepository.findById(id).map(task -> {
+            Map<LocalDate, double[]> before = rollupService.contributions(task);
             TaskStatus oldStatus = task.getStatus();
             TaskStatus newStatus = updatedTask.getStatus();
 
@@ -81,13 +125,18 @@ public class TaskController {
                 task.setCompletedAt(null);
             }
 
-            return taskRepository.save(task);
+            Task saved = taskRepository.save(task);
+            rollupService.apply(task.getUserId(), before, rollupService.contributions(saved));
+            eventPublisher.publishEvent(new UserDataChangedEvent(task.getUserId()));
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Task not found"));
     }
 
     @PostMapping("/{id}/subtasks")
+    @Transactional
     public Task addSubTask(@PathVariable Long id, @RequestBody SubTask subTask) {
         Task task = taskRepository.findById(id).orElseThrow(() -> new RuntimeException("Task not found"));
+        Map<LocalDate, double[]> before = rollupService.contributions(task);
         subTask.setParentTask(task);
         if (subTask.getStatus() == null)
             subTask.setStatus(TaskStatus.TODO);
@@ -99,13 +148,18 @@ public class TaskController {
             task.setEstimatedHours(totalSubEst);
         }
 
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        rollupService.apply(task.getUserId(), before, rollupService.contributions(saved));
+        eventPublisher.publishEvent(new UserDataChangedEvent(task.getUserId()));
+        return saved;
     }
 
     @PatchMapping("/{taskId}/subtasks/{subId}")
+    @Transactional
     public Task updateSubTask(@PathVariable Long taskId, @PathVariable Long subId,
             @RequestBody SubTask subTaskUpdates) {
         Task task = taskRepository.findById(taskId).orElseThrow(() -> new RuntimeException("Task not found"));
+        Map<LocalDate, double[]> before = rollupService.contributions(task);
 
         SubTask existing = task.getSubTasks().stream()
                 .filter(st -> st.getId().equals(subId))
@@ -131,117 +185,48 @@ public class TaskController {
         }
 
         taskRepository.save(task);
+        rollupService.apply(task.getUserId(), before, rollupService.contributions(task));
+        eventPublisher.publishEvent(new UserDataChangedEvent(task.getUserId()));
         return task;
     }
 
     // ===== ANALYTICS ENDPOINTS =====
 
     @GetMapping("/analytics/hours")
-    public Double getTotalStudyHours(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public Double getTotalStudyHours(@CurrentUser Long userId) {
         if (userId == null)
             return 0.0;
-        List<Task> allTasks = taskRepository.findByUserId(userId);
-
-        double taskHours = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.DONE)
-                .mapToDouble(Task::getEstimatedHours)
-                .sum();
-        double subTaskHours = allTasks.stream()
-                .flatMap(t -> t.getSubTasks().stream())
-                .filter(st -> st.getStatus() == TaskStatus.DONE)
-                .mapToDouble(SubTask::getEstimatedHours)
-                .sum();
-        return taskHours + subTaskHours;
+        return studyAnalyticsService.totalHours(userId);
     }
 
     @GetMapping("/analytics/hours/week")
-    public Double getWeeklyStudyHours(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public Double getWeeklyStudyHours(@CurrentUser Long userId) {
         if (userId == null)
             return 0.0;
-        LocalDate weekAgo = LocalDate.now().minusDays(7);
-        List<Task> allTasks = taskRepository.findByUserId(userId);
-
-        double taskHours = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.DONE && t.getCompletedAt() != null
-                        && !t.getCompletedAt().isBefore(weekAgo))
-                .mapToDouble(Task::getEstimatedHours)
-                .sum();
-
-        double subTaskHours = allTasks.stream()
-                .flatMap(t -> t.getSubTasks().stream())
-                .filter(st -> st.getStatus() == TaskStatus.DONE && st.getCompletedAt() != null
-                        && !st.getCompletedAt().isBefore(weekAgo))
-                .mapToDouble(SubTask::getEstimatedHours)
-                .sum();
-
-        return taskHours + subTaskHours;
+        return studyAnalyticsService.recentHours(userId, LocalDate.now());
     }
 
     @GetMapping("/analytics/completed/week")
-    public Integer getWeeklyCompletedCount(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public Integer getWeeklyCompletedCount(@CurrentUser Long userId) {
         if (userId == null)
             return 0;
-        LocalDate weekAgo = LocalDate.now().minusDays(7);
-        List<Task> allTasks = taskRepository.findByUserId(userId);
-
-        long taskCount = allTasks.stream()
-                .filter(t -> t.getStatus() == TaskStatus.DONE && t.getCompletedAt() != null
-                        && !t.getCompletedAt().isBefore(weekAgo))
-                .count();
-
-        return (int) taskCount;
+        return studyAnalyticsService.recentCompletedCount(userId, LocalDate.now());
     }
 
     @GetMapping("/analytics/hours/history")
-    public List<Map<String, Object>> getWeeklyHistory(HttpServletRequest request) {
-        Long userId = getUserId(request);
+    public List<WeekHours> getWeeklyHistory(@CurrentUser Long userId) {
         if (userId == null)
             return List.of();
-        List<Task> allTasks = taskRepository.findByUserId(userId);
-        List<Map<String, Object>> result = new ArrayList<>();
-
-        LocalDate today = LocalDate.now();
-
-        for (int i = 0; i < 8; i++) {
-            LocalDate weekEnd = today.minusDays(i * 7);
-            LocalDate weekStart = weekEnd.minusDays(6);
-
-            double taskHours = allTasks.stream()
-                    .filter(t -> t.getStatus() == TaskStatus.DONE && t.getCompletedAt() != null)
-                    .filter(t -> !t.getCompletedAt().isBefore(weekStart) && !t.getCompletedAt().isAfter(weekEnd))
-                    .mapToDouble(Task::getEstimatedHours)
-                    .sum();
-
-            double subTaskHours = allTasks.stream()
-                    .flatMap(t -> t.getSubTasks().stream())
-                    .filter(st -> st.getStatus() == TaskStatus.DONE && st.getCompletedAt() != null)
-                    .filter(st -> !st.getCompletedAt().isBefore(weekStart) && !st.getCompletedAt().isAfter(weekEnd))
-                    .mapToDouble(SubTask::getEstimatedHours)
-                    .sum();
-
-            Map<String, Object> weekData = new HashMap<>();
-            weekData.put("weekStart", weekStart.toString());
-            weekData.put("weekEnd", weekEnd.toString());
-            weekData.put("hours", taskHours + subTaskHours);
-            weekData.put("label", String.format("%s - %s",
-                    weekStart.getMonth().toString().substring(0, 3) + " " + weekStart.getDayOfMonth(),
-                    weekEnd.getMonth().toString().substring(0, 3) + " " + weekEnd.getDayOfMonth()));
-
-            result.add(weekData);
-        }
-
-        Collections.reverse(result);
-        return result;
+        return studyAnalyticsService.hoursHistory(userId, LocalDate.now());
     }
 
     @DeleteMapping("/{id}")
-    public void deleteTask(@PathVariable Long id, HttpServletRequest request) {
-        Long userId = getUserId(request);
+    @Transactional
+    public void deleteTask(@PathVariable Long id, @CurrentUser Long userId) {
         taskRepository.findById(id).ifPresent(task -> {
             if (userId != null && userId.equals(task.getUserId())) {
+                rollupService.apply(userId, rollupService.contributions(task), Map.of());
+                eventPublisher.publishEvent(new UserDataChangedEvent(userId));
                 taskRepository.deleteById(id);
             }
         });
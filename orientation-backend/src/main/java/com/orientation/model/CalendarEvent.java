@@ -0,0 +1,28 @@
+package com.orientation.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+
+import java.time.LocalDate;
+
+// One entry of the calendar month view; fields that do not apply to the type are left out
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CalendarEvent(String type, LocalDate date, String title, TaskPriority priority, TaskStatus status,
+        String examType, Long taskId, Long parentTaskId) {
+
+    public static CalendarEvent of(Task t) {
+        return new CalendarEvent("task", t.getDueDate(), t.getTitle(), t.getPriority(), t.getStatus(),
+                null, t.getId(), null);
+    }
+
+    public static CalendarEvent of(SubTask st) {
+        return new CalendarEvent("subtask", st.getDueDate(), "↳ " + st.getTitle(), st.getPriority(), st.getStatus(),
+                null, null, st.getParentTask().getId());
+    }
+
+    public static CalendarEvent of(Exam e) {
+        return new CalendarEvent("exam", e.getDate(), e.getSubject().getName() + ": " + e.getName(), null, null,
+                e.getType(), null, null);
+    }
+}
@@ -5,18 +5,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "exams")
+@Table(name = "exams", indexes = @Index(name = "idx_exams_subject_date", columnList = "subject_id, date"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "exams")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Exam {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("exams_seq")
     private Long id;
 
     private String name; // e.g. "Quiz 1", "Midterm", "Final"
@@ -0,0 +1,11 @@
+package com.orientation.model;
+
+import java.util.List;
+
+// Outcome of POST /api/import; errors stops growing at the configured cap, rejected keeps counting
+public record ImportReport(long imported, long rejected, List<RowError> errors, boolean errorsTruncated) {
+
+    // row is the line the record starts on, counting a CSV header as line 1
+    public record RowError(long row, String message) {
+    }
+}
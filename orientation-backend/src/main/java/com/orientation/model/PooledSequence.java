@@ -0,0 +1,23 @@
+package com.orientation.model;
+
+import com.orientation.config.PooledSequenceGenerator;
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id drawn from the named database sequence in blocks of
+ * orientation.ids.allocation-size, so new rows need no round trip of their own
+ * and Hibernate can batch their inserts. The sequence's INCREMENT BY must be
+ * the same size.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface PooledSequence {
+
+    String value();
+}
@@ -0,0 +1,28 @@
+package com.orientation.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of a batch prediction, in the same position as its input
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PredictionResult {
+
+    private int index;
+
+    private String recommendedField;
+
+    private String error;
+
+    public static PredictionResult success(int index, String recommendedField) {
+        return new PredictionResult(index, recommendedField, null);
+    }
+
+    public static PredictionResult failure(int index, String error) {
+        return new PredictionResult(index, null, error);
+    }
+}
@@ -0,0 +1,36 @@
+package com.orientation.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Per-user, per-day rollup of done hours (tasks + subtasks) and completed tasks,
+// kept in step with task writes so analytics read days instead of tasks
+@Entity
+@Table(name = "study_hours_daily", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "day" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudyHoursDaily {
+
+    // Bucket for items marked DONE without a completion date; they only count towards totals
+    public static final LocalDate UNDATED = LocalDate.EPOCH;
+
+    @Id
+    @PooledSequence("study_hours_daily_seq")
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    private double doneHours;
+
+    // Completed parent tasks only, subtasks are not counted
+    private long completedCount;
+}
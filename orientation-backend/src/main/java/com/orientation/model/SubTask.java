@@ -8,14 +8,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "subtasks")
+@Table(name = "subtasks", indexes = @Index(name = "idx_subtasks_task_due_date", columnList = "task_id, due_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SubTask {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("subtasks_seq")
     private Long id;
 
     private String title;
@@ -1,17 +1,26 @@
 package com.orientation.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "subjects")
+@Table(name = "subjects", indexes = {
+        @Index(name = "idx_subjects_user", columnList = "user_id"),
+        @Index(name = "idx_subjects_user_year_name", columnList = "user_id, year, name, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subjects")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,7 +31,7 @@ public class Subject {
             "MATH", "PHYSICS", "CHEMISTRY", "BIOLOGY", "ENGLISH", "GEOGRAPHY");
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("subjects_seq")
     private Long id;
 
     // Key for ML mapping (e.g., "MATH", "PHYSICS")
@@ -39,7 +48,20 @@ public class Subject {
     // User ownership
     private Long userId;
 
+    // Running sums over exams, maintained by the exam endpoints so averages never load exams
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private double totalGrade;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private double totalMaxGrade;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int examCount;
+
+    // Null only on listings that leave nested items out, and then omitted from the JSON
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @OneToMany(mappedBy = "subject", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subject-exams")
     @JsonManagedReference
     private List<Exam> exams = new ArrayList<>();
 
@@ -50,14 +72,15 @@ public class Subject {
 
     // Calculate subject average (sum grades / sum maxGrades * 100)
     public Double getAverage() {
-        if (exams == null || exams.isEmpty())
+        if (examCount == 0 || totalMaxGrade == 0)
             return null;
+        return (totalGrade / totalMaxGrade) * 100;
+    }
 
-        double totalGrade = exams.stream().mapToDouble(Exam::getGrade).sum();
-        double totalMax = exams.stream().mapToDouble(Exam::getMaxGrade).sum();
-
-        if (totalMax == 0)
-            return null;
-        return (totalGrade / totalMax) * 100;
+    // For subjects not saved yet; saved ones take exam changes through SubjectRepository.addToTotals
+    public void addToTotals(Exam exam) {
+        totalGrade += exam.getGrade();
+        totalMaxGrade += exam.getMaxGrade();
+        examCount++;
     }
 }
@@ -2,6 +2,7 @@ package com.orientation.model;
 
 import com.orientation.model.enums.TaskPriority;
 import com.orientation.model.enums.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -13,14 +14,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = @Index(name = "idx_tasks_user_due_date", columnList = "user_id, due_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence("tasks_seq")
     private Long id;
 
     private String title;
@@ -51,13 +52,17 @@ public class Task {
     // Completion date for weekly hours tracking
     private LocalDate completedAt;
 
+    // Null only on listings that leave nested items out, and then omitted from the JSON
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     @OneToMany(mappedBy = "parentTask", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<SubTask> subTasks = new ArrayList<>();
 
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDate.now();
+        // Imported tasks bring their original creation date
+        if (this.createdAt == null)
+            this.createdAt = LocalDate.now();
         if (this.status == null)
             this.status = TaskStatus.TODO;
         if (this.priority == null)
@@ -0,0 +1,7 @@
+package com.orientation.model;
+
+import java.util.List;
+
+// Dashboard "upcoming" section: open tasks by priority then due date, exams by date
+public record Upcoming(List<UpcomingTask> tasks, List<UpcomingExam> exams) {
+}
@@ -0,0 +1,7 @@
+package com.orientation.model;
+
+import java.time.LocalDate;
+
+// Exam dated soon, projected by ExamRepository.findUpcoming
+public record UpcomingExam(String subjectName, String examName, LocalDate date, String type) {
+}
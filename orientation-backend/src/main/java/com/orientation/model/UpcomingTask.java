@@ -0,0 +1,11 @@
+package com.orientation.model;
+
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+
+import java.time.LocalDate;
+
+// Open task due soon, projected straight from the tasks table by TaskRepository.findUpcoming
+public record UpcomingTask(Long id, String title, LocalDate dueDate, TaskPriority priority, TaskStatus status,
+        double estimatedHours) {
+}
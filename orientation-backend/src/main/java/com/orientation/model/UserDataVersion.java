@@ -0,0 +1,20 @@
+package com.orientation.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counter bumped on every change to a user's tasks or grades; a changed version means changed responses
+@Entity
+@Table(name = "user_data_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDataVersion {
+
+    @Id
+    private Long userId;
+
+    private long version;
+}
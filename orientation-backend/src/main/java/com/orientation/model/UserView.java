@@ -0,0 +1,11 @@
+package com.orientation.model;
+
+import java.time.LocalDateTime;
+
+// What the auth endpoints expose of a user; never the password hash
+public record UserView(Long id, String email, String name, LocalDateTime createdAt) {
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getEmail(), user.getName(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,5 @@
+package com.orientation.model;
+
+// One bucket of the study-hours history; dates are ISO strings as the chart expects
+public record WeekHours(String weekStart, String weekEnd, double hours, String label) {
+}
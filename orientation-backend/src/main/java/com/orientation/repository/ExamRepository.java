@@ -0,0 +1,34 @@
+package com.orientation.repository;
+
+import com.orientation.model.Exam;
+import com.orientation.model.UpcomingExam;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExamRepository extends JpaRepository<Exam, Long> {
+
+    // Exams of the user's subjects dated in [start, end], subject fetched for its name
+    @Query("""
+            SELECT e FROM Exam e JOIN FETCH e.subject s
+            WHERE s.userId = :userId AND e.date BETWEEN :start AND :end
+            ORDER BY s.id, e.id
+            """)
+    List<Exam> findDatedBetween(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Exams of the user's subjects dated in [start, end], as DTOs ordered by date
+    @Query("""
+            SELECT new com.orientation.model.UpcomingExam(s.name, e.name, e.date, e.type)
+            FROM Exam e JOIN e.subject s
+            WHERE s.userId = :userId AND e.date BETWEEN :start AND :end
+            ORDER BY e.date, s.id, e.id
+            """)
+    List<UpcomingExam> findUpcoming(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -0,0 +1,52 @@
+package com.orientation.repository;
+
+import com.orientation.model.StudyHoursDaily;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StudyHoursDailyRepository extends JpaRepository<StudyHoursDaily, Long> {
+    List<StudyHoursDaily> findByUserId(Long userId);
+
+    List<StudyHoursDaily> findByUserIdAndDayGreaterThanEqual(Long userId, LocalDate from);
+
+    @Query("SELECT DISTINCT r.userId FROM StudyHoursDaily r")
+    List<Long> findDistinctUserIds();
+
+    @Query("SELECT COALESCE(SUM(r.doneHours), 0) FROM StudyHoursDaily r WHERE r.userId = :userId")
+    Double sumDoneHours(@Param("userId") Long userId);
+
+    // In-place increment so concurrent writers on the same day do not lose updates
+    @Modifying
+    @Query("""
+            UPDATE StudyHoursDaily r SET r.doneHours = r.doneHours + :hours, r.completedCount = r.completedCount + :count
+            WHERE r.userId = :userId AND r.day = :day
+            """)
+    int addToDay(@Param("userId") Long userId, @Param("day") LocalDate day,
+            @Param("hours") double hours, @Param("count") long count);
+
+    // Adds the day at zero unless a row exists; a concurrent writer's row wins instead of failing the unique key.
+    // A nextval of its own takes a whole block, so the id cannot meet one Hibernate hands out.
+    // The query space keeps Hibernate from clearing every second-level cache region after it
+    @Modifying
+    @Query(value = """
+            INSERT INTO study_hours_daily (id, user_id, day, done_hours, completed_count)
+            VALUES (nextval('study_hours_daily_seq'), :userId, :day, 0, 0)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "study_hours_daily"))
+    int createDayIfAbsent(@Param("userId") Long userId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM StudyHoursDaily r WHERE r.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,23 @@
+package com.orientation.repository;
+
+import com.orientation.model.SubTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SubTaskRepository extends JpaRepository<SubTask, Long> {
+
+    // Subtasks of the user's tasks due in [start, end], parent fetched for its id
+    @Query("""
+            SELECT st FROM SubTask st JOIN FETCH st.parentTask t
+            WHERE t.userId = :userId AND st.dueDate BETWEEN :start AND :end
+            ORDER BY t.id, st.id
+            """)
+    List<SubTask> findDueBetween(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -1,18 +1,78 @@
 package com.orientation.repository;
 
 import com.orientation.model.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Repository
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
     List<Subject> findByUserId(Long userId);
 
+    List<Subject> findByUserIdAndYear(Long userId, int year);
+
+    // Query cache keeps the ids; the subjects themselves come from the entity cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "subject-queries") })
     List<Subject> findByUserIdOrderByYearAscNameAsc(Long userId);
 
+    // Exams fetched in the same query, for exam listings
+    @EntityGraph(attributePaths = "exams")
+    List<Subject> findWithExamsByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "exams")
+    List<Subject> findWithExamsByUserIdOrderByYearAscNameAsc(Long userId);
+
+    // Read through a cursor for the export, ordered by id so each subject's joined rows arrive
+    // together; a one-off read, so it leaves the entity cache alone. Needs an open transaction.
+    @Query("SELECT s FROM Subject s LEFT JOIN FETCH s.exams WHERE s.userId = :userId ORDER BY s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    Stream<Subject> streamWithExamsByUserId(@Param("userId") Long userId);
+
+    // Moves the running sums in place, so concurrent exam writes on one subject cannot overwrite each
+    // other's totals. Pending exam changes are flushed first; as a bulk update it also drops the cached
+    // subjects once the transaction ends, so no read caches the old sums in between
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Subject s SET s.totalGrade = s.totalGrade + :grade, s.totalMaxGrade = s.totalMaxGrade + :maxGrade,
+                s.examCount = s.examCount + :count
+            WHERE s.id = :id
+            """)
+    int addToTotals(@Param("id") Long id, @Param("grade") double grade, @Param("maxGrade") double maxGrade,
+            @Param("count") int count);
+
     List<Subject> findByYear(int year);
 
     List<Subject> findAllByOrderByYearAscNameAsc();
+
+    // Rows of [year, mean of subject averages], each subject average weighted by maxGrade
+    // through the running sums; subjects without graded exams are left out
+    @Query("""
+            SELECT s.year, AVG(s.totalGrade / s.totalMaxGrade * 100) FROM Subject s
+            WHERE s.userId = :userId AND s.examCount > 0 AND s.totalMaxGrade <> 0
+            GROUP BY s.year
+            """)
+    List<Object[]> averageByYear(@Param("userId") Long userId);
+
+    default Map<Integer, Double> findYearAverages(Long userId) {
+        Map<Integer, Double> averages = new HashMap<>();
+        for (Object[] row : averageByYear(userId)) {
+            averages.put(((Number) row[0]).intValue(), ((Number) row[1]).doubleValue());
+        }
+        return averages;
+    }
 }
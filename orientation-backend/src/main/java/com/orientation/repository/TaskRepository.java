@@ -1,18 +1,68 @@
 package com.orientation.repository;
 
 import com.orientation.model.Task;
+import com.orientation.model.UpcomingTask;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByUserId(Long userId);
 
+    List<Task> findByUserIdAndDueDateBetweenOrderById(Long userId, LocalDate start, LocalDate end);
+
+    // Same rows with subTasks fetched in one joined query, for callers that walk them
+    @EntityGraph(attributePaths = "subTasks")
+    List<Task> findWithSubTasksByUserId(Long userId);
+
+    // The same, read through a cursor for writing straight to the response; ordered by id so
+    // each task's joined rows arrive together. Needs an open transaction.
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.subTasks WHERE t.userId = :userId ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    Stream<Task> streamWithSubTasksByUserId(@Param("userId") Long userId);
+
+    // Open tasks due in [start, end], as DTOs without loading the entities
+    @Query("""
+            SELECT new com.orientation.model.UpcomingTask(t.id, t.title, t.dueDate, t.priority, t.status,
+                t.estimatedHours)
+            FROM Task t
+            WHERE t.userId = :userId AND t.dueDate BETWEEN :start AND :end
+                AND (t.status IS NULL OR t.status <> 'DONE')
+            ORDER BY t.id
+            """)
+    List<UpcomingTask> findUpcoming(@Param("userId") Long userId,
+            @Param("start") LocalDate start, @Param("end") LocalDate end);
+
     @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(t.estimatedHours), 0) FROM Task t WHERE t.status = 'DONE'")
     Double getTotalTaskHours();
 
     @org.springframework.data.jpa.repository.Query("SELECT COALESCE(SUM(st.estimatedHours), 0) FROM SubTask st WHERE st.status = 'DONE'")
     Double getTotalSubTaskHours();
+
+    @Query("SELECT DISTINCT t.userId FROM Task t WHERE t.userId IS NOT NULL")
+    List<Long> findDistinctUserIds();
+
+    // Rows of [completedAt, doneHours, completedTasks] per completion day, computed from the raw
+    // tasks and subtasks; completedAt is null for items marked DONE without a date.
+    // Tasks and subtasks come from separate branches, so a day can appear twice.
+    @Query("""
+            SELECT t.completedAt, SUM(t.estimatedHours), COUNT(t) FROM Task t
+            WHERE t.userId = :userId AND t.status = 'DONE'
+            GROUP BY t.completedAt
+            UNION ALL
+            SELECT st.completedAt, SUM(st.estimatedHours), 0L FROM SubTask st
+            WHERE st.parentTask.userId = :userId AND st.status = 'DONE'
+            GROUP BY st.completedAt
+            """)
+    List<Object[]> sumDoneHoursByDay(@Param("userId") Long userId);
 }
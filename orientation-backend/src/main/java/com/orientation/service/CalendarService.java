@@ -0,0 +1,132 @@
+package com.orientation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.CalendarEvent;
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Task;
+import com.orientation.repository.ExamRepository;
+import com.orientation.repository.SubTaskRepository;
+import com.orientation.repository.TaskRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calendar month view: tasks, subtasks and exams dated in the month, read with
+ * indexed range queries and cached per (user, month) until the user's data changes.
+ */
+@Service
+public class CalendarService {
+
+    private final OrientationProperties properties;
+
+    private final TaskRepository taskRepository;
+
+    private final SubTaskRepository subTaskRepository;
+
+    private final ExamRepository examRepository;
+
+    private final Cache<MonthKey, List<CalendarEvent>> months;
+
+    // Bumped on every change; a view loaded across a bump is not cached
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CalendarService(OrientationProperties properties, TaskRepository taskRepository,
+            SubTaskRepository subTaskRepository, ExamRepository examRepository) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.subTaskRepository = subTaskRepository;
+        this.examRepository = examRepository;
+        OrientationProperties.Calendar calendar = properties.getCalendar();
+        this.months = Caffeine.newBuilder()
+                .maximumSize(calendar.getCacheMaxSize())
+                .expireAfterWrite(calendar.getCacheTtl())
+                .recordStats()
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<CalendarEvent> events(Long userId, int year, int month) {
+        MonthKey key = new MonthKey(userId, YearMonth.of(year, month));
+        if (!properties.getCalendar().isCacheEnabled())
+            return load(key);
+
+        List<CalendarEvent> cached = months.getIfPresent(key);
+        if (cached != null)
+            return cached;
+
+        long generation = generation(userId).get();
+        List<CalendarEvent> events = load(key);
+        if (generation(userId).get() == generation)
+            months.put(key, events);
+        return events;
+    }
+
+    // After commit, so a reload cannot read the data from before the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        if (event.userId() == null)
+            return;
+        generation(event.userId()).incrementAndGet();
+        months.asMap().keySet().removeIf(key -> key.userId().equals(event.userId()));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", months.estimatedSize());
+        stats.put("hits", months.stats().hitCount());
+        stats.put("misses", months.stats().missCount());
+        return stats;
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private List<CalendarEvent> load(MonthKey key) {
+        LocalDate start = key.month().atDay(1);
+        LocalDate end = key.month().atEndOfMonth();
+
+        // Same order as before: each task followed by its subtasks, then exams by subject
+        Map<Long, CalendarEvent> taskEvents = new HashMap<>();
+        for (Task t : taskRepository.findByUserIdAndDueDateBetweenOrderById(key.userId(), start, end)) {
+            taskEvents.put(t.getId(), CalendarEvent.of(t));
+        }
+
+        Map<Long, List<CalendarEvent>> subTaskEvents = new HashMap<>();
+        for (SubTask st : subTaskRepository.findDueBetween(key.userId(), start, end)) {
+            subTaskEvents.computeIfAbsent(st.getParentTask().getId(), id -> new ArrayList<>()).add(CalendarEvent.of(st));
+        }
+
+        List<CalendarEvent> events = new ArrayList<>();
+        TreeSet<Long> taskIds = new TreeSet<>(taskEvents.keySet());
+        taskIds.addAll(subTaskEvents.keySet());
+        for (Long taskId : taskIds) {
+            if (taskEvents.containsKey(taskId))
+                events.add(taskEvents.get(taskId));
+            events.addAll(subTaskEvents.getOrDefault(taskId, List.of()));
+        }
+
+        for (Exam e : examRepository.findDatedBetween(key.userId(), start, end)) {
+            events.add(CalendarEvent.of(e));
+        }
+        return List.copyOf(events);
+    }
+
+    private record MonthKey(Long userId, YearMonth month) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.orientation.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma separated, fields optionally
+ * double-quoted, quotes inside a quoted field doubled, line breaks allowed
+ * inside quotes. Only the current record is held in memory. line() is the
+ * physical line the last record started on, for error reports.
+ */
+class CsvRecordReader {
+
+    private final Reader in;
+
+    private final int maxRecordLength;
+
+    private int line = 1;
+
+    private int recordLine;
+
+    // A character read ahead to tell CRLF from a lone CR
+    private int pushedBack = -2;
+
+    CsvRecordReader(Reader in, int maxRecordLength) {
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    int line() {
+        return recordLine;
+    }
+
+    // Null at end of input; blank lines are skipped
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int length = 0;
+        recordLine = line;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (quoted)
+                    throw new CsvFormatException("unterminated quoted field");
+                if (!fieldStarted && fields.isEmpty())
+                    return null;
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > maxRecordLength)
+                throw skipRecord(quoted, "record longer than " + maxRecordLength + " characters");
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                        continue;
+                    }
+                    quoted = false;
+                    unread(following);
+                } else {
+                    if (c == '\n')
+                        line++;
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n')
+                        unread(following);
+                }
+                line++;
+                if (!fieldStarted && fields.isEmpty()) {
+                    recordLine = line;
+                    length = 0;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            fieldStarted = true;
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    // Drops the rest of an oversized record so reading can go on with the next one
+    private CsvFormatException skipRecord(boolean quoted, String message) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\n') {
+                line++;
+                if (!quoted)
+                    break;
+            }
+        }
+        return new CsvFormatException(message);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    static class CsvFormatException extends IOException {
+        CsvFormatException(String message) {
+            super(message);
+        }
+    }
+}
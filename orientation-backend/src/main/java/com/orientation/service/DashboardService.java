@@ -0,0 +1,211 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.config.ReplicaRouting;
+import com.orientation.config.RequestQueryCount;
+import com.orientation.model.StudyHoursDaily;
+import com.orientation.model.Subject;
+import com.orientation.model.Upcoming;
+import com.orientation.model.UpcomingExam;
+import com.orientation.model.UpcomingTask;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.repository.ExamRepository;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Dashboard sections. The single-section endpoints load what they need per call;
+ * {@link #all} loads each piece of the user's data at most once, in parallel on the
+ * dashboard executor, and builds every requested section from those loads.
+ * Every load is a read-only transaction, so it can be served by the replica.
+ */
+@Service
+public class DashboardService {
+
+    // Section names accepted by /api/dashboard/all, in response order
+    public static final List<String> SECTIONS = List.of(
+            "summary", "upcoming", "calendar", "hours", "weekHours", "weekCompleted", "history");
+
+    private final OrientationProperties properties;
+
+    private final TaskRepository taskRepository;
+
+    private final SubjectRepository subjectRepository;
+
+    private final ExamRepository examRepository;
+
+    private final StudyAnalyticsService studyAnalyticsService;
+
+    private final CalendarService calendarService;
+
+    private final Executor executor;
+
+    private final TransactionTemplate readOnly;
+
+    public DashboardService(OrientationProperties properties, TaskRepository taskRepository,
+            SubjectRepository subjectRepository, ExamRepository examRepository,
+            StudyAnalyticsService studyAnalyticsService,
+            CalendarService calendarService, @Qualifier("dashboardExecutor") Executor executor,
+            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.subjectRepository = subjectRepository;
+        this.examRepository = examRepository;
+        this.studyAnalyticsService = studyAnalyticsService;
+        this.calendarService = calendarService;
+        this.executor = executor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> summary(Long userId) {
+        // Averages come from the subjects' running grade sums; exams are not loaded
+        return summary(subjectRepository.findByUserIdOrderByYearAscNameAsc(userId), studyAnalyticsService.totalHours(userId),
+                subjectRepository.findYearAverages(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public Upcoming upcoming(Long userId, LocalDate today) {
+        return new Upcoming(upcomingTasks(userId, today), upcomingExams(userId, today));
+    }
+
+    public Map<String, Object> all(Long userId, Set<String> sections, YearMonth month, LocalDate today) {
+        for (String section : sections) {
+            if (!SECTIONS.contains(section))
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown dashboard section: " + section);
+        }
+        boolean summary = sections.contains("summary");
+        boolean upcoming = sections.contains("upcoming");
+
+        // Each load runs once, and only if a requested section needs it
+        CompletableFuture<List<Subject>> subjects = summary ? async(() -> subjectRepository.findByUserIdOrderByYearAscNameAsc(userId)) : null;
+        CompletableFuture<List<UpcomingTask>> tasks = upcoming ? async(() -> upcomingTasks(userId, today)) : null;
+        CompletableFuture<List<UpcomingExam>> exams = upcoming ? async(() -> upcomingExams(userId, today)) : null;
+        CompletableFuture<Double> totalHours = summary || sections.contains("hours")
+                ? async(() -> studyAnalyticsService.totalHours(userId)) : null;
+        CompletableFuture<List<StudyHoursDaily>> days = sections.contains("weekHours")
+                || sections.contains("weekCompleted") || sections.contains("history")
+                ? async(() -> studyAnalyticsService.windowDays(userId, today)) : null;
+
+        Map<String, CompletableFuture<?>> results = new LinkedHashMap<>();
+        for (String section : SECTIONS) {
+            if (!sections.contains(section))
+                continue;
+            results.put(section, switch (section) {
+                case "summary" -> subjects.thenCombineAsync(totalHours,
+                        (s, hours) -> summary(s, hours, yearAverages(s)), executor);
+                case "upcoming" -> tasks.thenCombine(exams, Upcoming::new);
+                case "calendar" -> async(() -> calendarService.events(userId, month.getYear(), month.getMonthValue()));
+                case "hours" -> totalHours;
+                case "weekHours" -> days.thenApplyAsync(d -> studyAnalyticsService.recentHours(d, today), executor);
+                case "weekCompleted" -> days.thenApplyAsync(
+                        d -> studyAnalyticsService.recentCompletedCount(d, today), executor);
+                default -> days.thenApplyAsync(d -> studyAnalyticsService.hoursHistory(d, today), executor);
+            });
+        }
+
+        try {
+            CompletableFuture.allOf(results.values().toArray(new CompletableFuture[0]))
+                    .get(properties.getDashboard().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            results.values().forEach(f -> f.cancel(true));
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Dashboard timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Dashboard interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime)
+                throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        results.forEach((section, result) -> payload.put(section, result.join()));
+        return payload;
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> load) {
+        Supplier<T> inTransaction = () -> readOnly.execute(status -> load.get());
+        return CompletableFuture.supplyAsync(
+                RequestQueryCount.propagate(ReplicaRouting.propagate(inTransaction)), executor);
+    }
+
+    // The in-memory steps below are static so they can be measured without a database (AnalyticsBenchmark)
+    public static Map<String, Object> summary(List<Subject> subjects, double totalHours,
+            Map<Integer, Double> yearAverages) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("weeklyHours", totalHours);
+        summary.put("yearAverages", yearAverages);
+
+        Map<String, Map<Integer, Double>> subjectComparison = subjects.stream()
+                .filter(s -> s.getAverage() != null && s.getSubjectKey() != null)
+                .collect(Collectors.groupingBy(
+                        Subject::getSubjectKey,
+                        Collectors.toMap(Subject::getYear, Subject::getAverage, (a, b) -> a)));
+        summary.put("subjectComparison", subjectComparison);
+        return summary;
+    }
+
+    // Same figures as SubjectRepository.averageByYear, from subjects already in memory
+    public static Map<Integer, Double> yearAverages(List<Subject> subjects) {
+        return subjects.stream()
+                .filter(s -> s.getAverage() != null)
+                .collect(Collectors.groupingBy(Subject::getYear, HashMap::new,
+                        Collectors.averagingDouble(Subject::getAverage)));
+    }
+
+    // Open tasks due within the next week, by priority then due date
+    private List<UpcomingTask> upcomingTasks(Long userId, LocalDate today) {
+        return byPriority(taskRepository.findUpcoming(userId, today, today.plusDays(7)));
+    }
+
+    public static List<UpcomingTask> byPriority(List<UpcomingTask> tasks) {
+        return tasks.stream()
+                .sorted(Comparator.comparingInt((UpcomingTask t) -> getPriorityOrder(t.priority()))
+                        .thenComparing(UpcomingTask::dueDate))
+                .toList();
+    }
+
+    private List<UpcomingExam> upcomingExams(Long userId, LocalDate today) {
+        return examRepository.findUpcoming(userId, today, today.plusDays(7));
+    }
+
+    private static int getPriorityOrder(TaskPriority priority) {
+        if (priority == null)
+            return 4;
+        switch (priority) {
+            case HIGH:
+                return 1;
+            case MEDIUM:
+                return 2;
+            case LOW:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.orientation.service;
+
+import com.orientation.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool usage, and with a replica configured, where connections were
+ * routed and the replica's last health check.
+ */
+@Service
+public class DataSourceStatsService {
+
+    private final DataSource dataSource;
+
+    private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+
+    public DataSourceStatsService(DataSource dataSource, ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        this.dataSource = dataSource;
+        this.routingDataSource = routingDataSource;
+    }
+
+    public Map<String, Object> stats() {
+        ReplicaRoutingDataSource routing = routingDataSource.getIfAvailable();
+        if (routing != null)
+            return routing.stats();
+
+        Map<String, Object> pools = new LinkedHashMap<>();
+        try {
+            // Behind the JDBC metrics proxy
+            if (dataSource.isWrapperFor(HikariDataSource.class))
+                pools.put("primary", ReplicaRoutingDataSource.poolStats(dataSource.unwrap(HikariDataSource.class)));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaEnabled", false);
+        stats.put("pools", pools);
+        return stats;
+    }
+}
@@ -0,0 +1,84 @@
+package com.orientation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.UserDataVersion;
+import com.orientation.repository.UserDataVersionRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user data versions for conditional GETs. The table is the source of truth
+ * and is bumped inside the write's transaction; reads are served from memory,
+ * taking this instance's new values once the write commits and reading the row
+ * again after orientation.data-version.ttl, which brings in writes committed
+ * through other instances or before a restart.
+ * The time of each user's last committed write is kept alongside, for routing
+ * that user's reads away from a replica that may not have it yet.
+ */
+@Service
+public class DataVersionService {
+
+    private final UserDataVersionRepository repository;
+
+    private final Cache<Long, Long> versions;
+
+    // System.nanoTime() of each user's last committed write
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public DataVersionService(UserDataVersionRepository repository, OrientationProperties properties) {
+        this.repository = repository;
+        OrientationProperties.DataVersion dataVersion = properties.getDataVersion();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(dataVersion.getMaxSize())
+                .expireAfterWrite(dataVersion.getTtl())
+                .build();
+    }
+
+    public long current(Long userId) {
+        return versions.get(userId, id -> repository.findVersion(id).orElse(0L));
+    }
+
+    public boolean changedWithin(Long userId, Duration window) {
+        Long lastWrite = lastWrites.get(userId);
+        return lastWrite != null && System.nanoTime() - lastWrite < window.toNanos();
+    }
+
+    // Synchronous, so the bump commits or rolls back with the write that published the event
+    @EventListener
+    @Transactional
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        Long userId = event.userId();
+        if (userId == null)
+            return;
+        long version;
+        if (repository.increment(userId) == 0) {
+            repository.save(new UserDataVersion(userId, 1));
+            version = 1;
+        } else {
+            version = repository.findVersion(userId).orElseThrow();
+        }
+
+        // Joins the write's transaction, or runs in its own; either way one is active here
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(userId, version);
+            }
+        });
+    }
+
+    // Never moves backwards, whatever order concurrent commits and first loads land in
+    private void publish(Long userId, long version) {
+        versions.asMap().merge(userId, version, Math::max);
+        lastWrites.put(userId, System.nanoTime());
+    }
+}
@@ -0,0 +1,54 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit and miss counts of the Hibernate second-level and query cache regions,
+ * from the session factory's statistics.
+ */
+@Service
+public class EntityCacheService {
+
+    private final Statistics statistics;
+
+    private final OrientationProperties properties;
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory, OrientationProperties properties) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.properties = properties;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : properties.getEntityCache().getRegions().keySet()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null)
+                continue;
+            Map<String, Object> counts = new LinkedHashMap<>();
+            counts.put("hits", region.getHitCount());
+            counts.put("misses", region.getMissCount());
+            counts.put("puts", region.getPutCount());
+            counts.put("size", region.getElementCountInMemory());
+            regions.put(name, counts);
+        }
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("hits", statistics.getQueryCacheHitCount());
+        queries.put("misses", statistics.getQueryCacheMissCount());
+        queries.put("puts", statistics.getQueryCachePutCount());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statistics.isStatisticsEnabled());
+        stats.put("regions", regions);
+        stats.put("queryCache", queries);
+        return stats;
+    }
+}
@@ -0,0 +1,154 @@
+package com.orientation.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's whole history as NDJSON, one record per line in the layout
+ * POST /api/import reads: each task followed by its subtasks, then each
+ * subject followed by its exams. As in TaskStreamService, rows come from
+ * database cursors and every parent is detached once written, so memory stays
+ * flat however long the history is.
+ */
+@Service
+public class ExportService {
+
+    private final TaskRepository taskRepository;
+
+    private final SubjectRepository subjectRepository;
+
+    private final ObjectMapper mapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(TaskRepository taskRepository, SubjectRepository subjectRepository, ObjectMapper mapper) {
+        this.taskRepository = taskRepository;
+        this.subjectRepository = subjectRepository;
+        this.mapper = mapper;
+    }
+
+    // Leaves out open; the caller may still have to finish a compressed stream
+    @Transactional(readOnly = true)
+    public void writeHistory(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator json = mapper.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+
+            try (Stream<Task> tasks = taskRepository.streamWithSubTasksByUserId(userId)) {
+                for (Iterator<Task> it = tasks.iterator(); it.hasNext();) {
+                    Task task = it.next();
+                    writeTask(json, task);
+                    // The cursor is ordered by parent only; children go out in id order, i.e. creation order
+                    for (SubTask subTask : sortedById(task.getSubTasks(), SubTask::getId))
+                        writeSubTask(json, subTask);
+                    entityManager.detach(task);
+                }
+            }
+            try (Stream<Subject> subjects = subjectRepository.streamWithExamsByUserId(userId)) {
+                for (Iterator<Subject> it = subjects.iterator(); it.hasNext();) {
+                    Subject subject = it.next();
+                    writeSubject(json, subject);
+                    for (Exam exam : sortedById(subject.getExams(), Exam::getId))
+                        writeExam(json, exam);
+                    entityManager.detach(subject);
+                }
+            }
+        }
+    }
+
+    private static void writeTask(JsonGenerator json, Task task) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("record", "task");
+        json.writeNumberField("id", task.getId());
+        writeText(json, "title", task.getTitle());
+        writeText(json, "description", task.getDescription());
+        writeText(json, "priority", task.getPriority() != null ? task.getPriority().name() : null);
+        writeText(json, "status", task.getStatus() != null ? task.getStatus().name() : null);
+        json.writeNumberField("estimatedHours", task.getEstimatedHours());
+        json.writeNumberField("actualHours", task.getActualHours());
+        writeDate(json, "dueDate", task.getDueDate());
+        writeDate(json, "createdAt", task.getCreatedAt());
+        writeDate(json, "completedAt", task.getCompletedAt());
+        endRecord(json);
+    }
+
+    private static void writeSubTask(JsonGenerator json, SubTask subTask) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("record", "subtask");
+        json.writeNumberField("id", subTask.getId());
+        writeText(json, "title", subTask.getTitle());
+        writeText(json, "description", subTask.getDescription());
+        writeText(json, "priority", subTask.getPriority() != null ? subTask.getPriority().name() : null);
+        writeText(json, "status", subTask.getStatus() != null ? subTask.getStatus().name() : null);
+        json.writeNumberField("estimatedHours", subTask.getEstimatedHours());
+        json.writeNumberField("completedHours", subTask.getCompletedHours());
+        writeDate(json, "dueDate", subTask.getDueDate());
+        writeDate(json, "completedAt", subTask.getCompletedAt());
+        endRecord(json);
+    }
+
+    private static void writeSubject(JsonGenerator json, Subject subject) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("record", "subject");
+        json.writeNumberField("id", subject.getId());
+        writeText(json, "subjectKey", subject.getSubjectKey());
+        writeText(json, "name", subject.getName());
+        json.writeNumberField("year", subject.getYear());
+        writeText(json, "teacher", subject.getTeacher());
+        json.writeNumberField("absenceDays", subject.getAbsenceDays());
+        endRecord(json);
+    }
+
+    // No subjectId: on import that would point at the original subject instead of the one above
+    private static void writeExam(JsonGenerator json, Exam exam) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("record", "exam");
+        json.writeNumberField("id", exam.getId());
+        writeText(json, "name", exam.getName());
+        writeText(json, "type", exam.getType());
+        writeDate(json, "date", exam.getDate());
+        json.writeNumberField("grade", exam.getGrade());
+        json.writeNumberField("maxGrade", exam.getMaxGrade());
+        endRecord(json);
+    }
+
+    private static <T> List<T> sortedById(List<T> children, Function<T, Long> id) {
+        return children.stream().sorted(Comparator.comparing(id)).toList();
+    }
+
+    // Absent values are left out rather than written as null
+    private static void writeText(JsonGenerator json, String name, String value) throws IOException {
+        if (value != null)
+            json.writeStringField(name, value);
+    }
+
+    private static void writeDate(JsonGenerator json, String name, LocalDate value) throws IOException {
+        if (value != null)
+            json.writeStringField(name, value.toString());
+    }
+
+    private static void endRecord(JsonGenerator json) throws IOException {
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
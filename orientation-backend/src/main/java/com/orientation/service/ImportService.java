@@ -0,0 +1,565 @@
+package com.orientation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.Exam;
+import com.orientation.model.ImportReport;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of tasks, subtasks, subjects and exams from CSV or NDJSON.
+ * Records are read one at a time and validated on their own; valid ones are
+ * written in chunks of about orientation.bulk-import.chunk-size rows, one
+ * transaction each, through the same saves as the single-row endpoints so the
+ * pooled ids and JDBC batching apply. The persistence context is cleared after
+ * every chunk, so memory depends on the chunk size, not on the file.
+ *
+ * <p>Every record has a {@code record} field: task, subtask, subject or exam.
+ * Subtask rows belong to the closest task row above them and exam rows to the
+ * closest subject row, unless they name an existing subject by subjectId.
+ * Other fields use the JSON property names of the entities.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private final OrientationProperties properties;
+
+    private final TaskRepository taskRepository;
+
+    private final SubjectRepository subjectRepository;
+
+    private final StudyHoursRollupService rollupService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper mapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ImportService(OrientationProperties properties, TaskRepository taskRepository,
+            SubjectRepository subjectRepository, StudyHoursRollupService rollupService,
+            ApplicationEventPublisher eventPublisher, ObjectMapper mapper,
+            PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        this.subjectRepository = subjectRepository;
+        this.rollupService = rollupService;
+        this.eventPublisher = eventPublisher;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReport importCsv(Long userId, Reader in) throws IOException {
+        return importRows(userId, new CsvRows(new CsvRecordReader(in, properties.getBulkImport().getMaxRecordLength())));
+    }
+
+    public ImportReport importNdjson(Long userId, Reader in) throws IOException {
+        return importRows(userId, new NdjsonRows(in, properties.getBulkImport().getMaxRecordLength()));
+    }
+
+    private ImportReport importRows(Long userId, RowSource rows) throws IOException {
+        OrientationProperties.BulkImport settings = properties.getBulkImport();
+        Report report = new Report(settings.getMaxErrors());
+        Chunk chunk = new Chunk();
+        Set<Long> ownedSubjects = new HashSet<>();
+
+        // The task or subject that following child rows attach to, or why they can't
+        Task openTask = null;
+        Subject openSubject = null;
+        int children = 0;
+        String orphaned = null;
+
+        for (Row row = rows.next(); row != null; row = rows.next()) {
+            if (row.error() != null) {
+                report.reject(row.line(), row.error());
+                openTask = null;
+                openSubject = null;
+                orphaned = "the row on line " + row.line() + " above it was rejected";
+                continue;
+            }
+            Fields fields = new Fields(row.values());
+            String record = fields.values.get("record");
+            try {
+                switch (record == null ? "" : record.trim().toLowerCase(Locale.ROOT)) {
+                    case "task" -> {
+                        if (chunk.size() >= settings.getChunkSize())
+                            write(userId, chunk, report);
+                        openTask = null;
+                        openSubject = null;
+                        orphaned = "its task on line " + row.line() + " was rejected";
+                        Task task = task(fields);
+                        task.setUserId(userId);
+                        chunk.tasks.add(task);
+                        chunk.lines.add(row.line());
+                        openTask = task;
+                        children = 0;
+                    }
+                    case "subtask" -> {
+                        if (openTask == null)
+                            throw new InvalidRow(orphaned != null ? orphaned : "subtask rows must follow a task row");
+                        if (children >= settings.getMaxChildren())
+                            throw new InvalidRow("more than " + settings.getMaxChildren() + " subtasks under one task");
+                        SubTask subTask = subTask(fields);
+                        subTask.setParentTask(openTask);
+                        openTask.getSubTasks().add(subTask);
+                        chunk.lines.add(row.line());
+                        children++;
+                    }
+                    case "subject" -> {
+                        if (chunk.size() >= settings.getChunkSize())
+                            write(userId, chunk, report);
+                        openTask = null;
+                        openSubject = null;
+                        orphaned = "its subject on line " + row.line() + " was rejected";
+                        Subject subject = subject(fields);
+                        subject.setUserId(userId);
+                        chunk.subjects.add(subject);
+                        chunk.lines.add(row.line());
+                        openSubject = subject;
+                        children = 0;
+                    }
+                    case "exam" -> {
+                        Long subjectId = fields.id("subjectId");
+                        if (subjectId != null) {
+                            // Stands alone, so it may start a new chunk; rows after it have no parent
+                            if (chunk.size() >= settings.getChunkSize())
+                                write(userId, chunk, report);
+                            openTask = null;
+                            openSubject = null;
+                            orphaned = null;
+                            if (!owned(userId, subjectId, ownedSubjects))
+                                throw new InvalidRow("subject " + subjectId + " not found");
+                            chunk.examsBySubject.computeIfAbsent(subjectId, id -> new ArrayList<>()).add(exam(fields));
+                            chunk.lines.add(row.line());
+                            break;
+                        }
+                        if (openSubject == null)
+                            throw new InvalidRow(orphaned != null ? orphaned
+                                    : "exam rows need a subjectId or must follow a subject row");
+                        if (children >= settings.getMaxChildren())
+                            throw new InvalidRow("more than " + settings.getMaxChildren() + " exams under one subject");
+                        Exam exam = exam(fields);
+                        exam.setSubject(openSubject);
+                        openSubject.getExams().add(exam);
+                        openSubject.addToTotals(exam);
+                        chunk.lines.add(row.line());
+                        children++;
+                    }
+                    default -> throw new InvalidRow(record == null || record.isBlank()
+                            ? "record is required (task, subtask, subject or exam)"
+                            : "unknown record '" + record + "'");
+                }
+            } catch (InvalidRow e) {
+                report.reject(row.line(), e.getMessage());
+            }
+        }
+        write(userId, chunk, report);
+        return report.toReport();
+    }
+
+    // One transaction per chunk; if it fails, every row in it is reported and the import goes on
+    private void write(Long userId, Chunk chunk, Report report) {
+        if (chunk.size() == 0)
+            return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!chunk.tasks.isEmpty()) {
+                    // As in addSubTask: a task's estimate covers at least its subtasks'
+                    for (Task task : chunk.tasks) {
+                        double subTaskSum = task.getSubTasks().stream().mapToDouble(SubTask::getEstimatedHours).sum();
+                        if (subTaskSum > task.getEstimatedHours())
+                            task.setEstimatedHours(subTaskSum);
+                    }
+                    taskRepository.saveAll(chunk.tasks);
+                    Map<LocalDate, double[]> added = new HashMap<>();
+                    for (Task task : chunk.tasks) {
+                        rollupService.contributions(task).forEach((day, totals) -> {
+                            double[] sum = added.computeIfAbsent(day, d -> new double[2]);
+                            sum[0] += totals[0];
+                            sum[1] += totals[1];
+                        });
+                    }
+                    rollupService.apply(userId, Map.of(), added);
+                }
+                subjectRepository.saveAll(chunk.subjects);
+                chunk.examsBySubject.forEach((subjectId, exams) -> {
+                    Subject subject = subjectRepository.findById(subjectId)
+                            .filter(s -> userId.equals(s.getUserId()))
+                            .orElseThrow(() -> new IllegalStateException("Subject " + subjectId + " was removed"));
+                    for (Exam exam : exams) {
+                        exam.setSubject(subject);
+                        subject.getExams().add(exam);
+                    }
+                    // An existing subject's sums move in place, as in GradeController
+                    subjectRepository.addToTotals(subjectId, exams.stream().mapToDouble(Exam::getGrade).sum(),
+                            exams.stream().mapToDouble(Exam::getMaxGrade).sum(), exams.size());
+                });
+                eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+                entityManager.flush();
+            });
+            report.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} rows for user {} failed", chunk.size(), userId, e);
+            for (Long line : chunk.lines)
+                report.reject(line, "not saved: the chunk it was written in failed");
+        } finally {
+            // Written rows are not needed again; keep the persistence context from growing
+            entityManager.clear();
+            chunk.clear();
+        }
+    }
+
+    private boolean owned(Long userId, Long subjectId, Set<Long> ownedSubjects) {
+        if (ownedSubjects.contains(subjectId))
+            return true;
+        boolean owned = subjectRepository.findById(subjectId)
+                .map(subject -> userId.equals(subject.getUserId()))
+                .orElse(false);
+        if (owned)
+            ownedSubjects.add(subjectId);
+        return owned;
+    }
+
+    private static Task task(Fields fields) {
+        Task task = new Task();
+        task.setTitle(fields.text("title", 255, true));
+        task.setDescription(fields.text("description", 1000, false));
+        task.setPriority(fields.enumValue("priority", TaskPriority.class));
+        task.setStatus(fields.enumValue("status", TaskStatus.class));
+        task.setEstimatedHours(fields.number("estimatedHours"));
+        task.setActualHours(fields.number("actualHours"));
+        task.setDueDate(fields.date("dueDate"));
+        task.setCreatedAt(fields.date("createdAt"));
+        task.setCompletedAt(fields.date("completedAt"));
+        return task;
+    }
+
+    private static SubTask subTask(Fields fields) {
+        SubTask subTask = new SubTask();
+        subTask.setTitle(fields.text("title", 255, true));
+        subTask.setDescription(fields.text("description", 255, false));
+        subTask.setPriority(fields.enumValue("priority", TaskPriority.class));
+        TaskStatus status = fields.enumValue("status", TaskStatus.class);
+        subTask.setStatus(status != null ? status : TaskStatus.TODO);
+        subTask.setEstimatedHours(fields.number("estimatedHours"));
+        subTask.setCompletedHours(fields.number("completedHours"));
+        subTask.setDueDate(fields.date("dueDate"));
+        subTask.setCompletedAt(fields.date("completedAt"));
+        return subTask;
+    }
+
+    private static Subject subject(Fields fields) {
+        Subject subject = new Subject();
+        subject.setName(fields.text("name", 255, true));
+        subject.setSubjectKey(fields.text("subjectKey", 255, false));
+        subject.setYear(fields.integer("year", 1, true));
+        subject.setTeacher(fields.text("teacher", 255, false));
+        subject.setAbsenceDays(fields.integer("absenceDays", 0, false));
+        return subject;
+    }
+
+    private static Exam exam(Fields fields) {
+        Exam exam = new Exam();
+        exam.setName(fields.text("name", 255, true));
+        exam.setType(fields.text("type", 255, false));
+        exam.setDate(fields.date("date"));
+        exam.setGrade(fields.number("grade"));
+        // No range checks: the exam endpoints take any grade and maxGrade (bonus marks, ungraded
+        // exams with maxGrade 0), and whatever they stored must import again from an export
+        exam.setMaxGrade(fields.number("maxGrade"));
+        return exam;
+    }
+
+    // Valid rows waiting for the next write; parents carry their children
+    private static final class Chunk {
+
+        final List<Task> tasks = new ArrayList<>();
+
+        final List<Subject> subjects = new ArrayList<>();
+
+        final Map<Long, List<Exam>> examsBySubject = new LinkedHashMap<>();
+
+        final List<Long> lines = new ArrayList<>();
+
+        int size() {
+            return lines.size();
+        }
+
+        void clear() {
+            tasks.clear();
+            subjects.clear();
+            examsBySubject.clear();
+            lines.clear();
+        }
+    }
+
+    private static final class Report {
+
+        final int maxErrors;
+
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        long imported;
+
+        long rejected;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors)
+                errors.add(new ImportReport.RowError(line, message));
+        }
+
+        ImportReport toReport() {
+            return new ImportReport(imported, rejected, errors, rejected > errors.size());
+        }
+    }
+
+    // One record as field name to text; error is set instead when the record could not be read
+    private record Row(long line, Map<String, String> values, String error) {
+    }
+
+    private interface RowSource {
+        // Null at end of input
+        Row next() throws IOException;
+    }
+
+    private static final class CsvRows implements RowSource {
+
+        private final CsvRecordReader reader;
+
+        private List<String> header;
+
+        CsvRows(CsvRecordReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> fields;
+            try {
+                if (header == null) {
+                    header = reader.next();
+                    if (header == null)
+                        return null;
+                    if (!header.isEmpty())
+                        header.set(0, header.get(0).replace("\uFEFF", ""));
+                    header.replaceAll(String::trim);
+                }
+                fields = reader.next();
+            } catch (CsvRecordReader.CsvFormatException e) {
+                return new Row(reader.line(), null, e.getMessage());
+            }
+            if (fields == null)
+                return null;
+            if (fields.size() != header.size())
+                return new Row(reader.line(), null,
+                        "expected " + header.size() + " fields, found " + fields.size());
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i);
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return new Row(reader.line(), values, null);
+        }
+    }
+
+    private final class NdjsonRows implements RowSource {
+
+        private final Reader in;
+
+        private final int maxLineLength;
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        private long line;
+
+        private boolean done;
+
+        NdjsonRows(Reader in, int maxLineLength) {
+            this.in = in;
+            this.maxLineLength = maxLineLength;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (!done) {
+                line++;
+                boolean tooLong = readLine();
+                if (tooLong)
+                    return new Row(line, null, "line longer than " + maxLineLength + " characters");
+                if (buffer.toString().isBlank())
+                    continue;
+                return parse(buffer.toString());
+            }
+            return null;
+        }
+
+        // Fills buffer with the next line, keeping at most maxLineLength characters of it
+        private boolean readLine() throws IOException {
+            buffer.setLength(0);
+            boolean tooLong = false;
+            int c;
+            while ((c = in.read()) != -1 && c != '\n') {
+                if (buffer.length() < maxLineLength)
+                    buffer.append((char) c);
+                else
+                    tooLong = true;
+            }
+            if (c == -1)
+                done = true;
+            return tooLong;
+        }
+
+        private Row parse(String text) {
+            JsonNode node;
+            try {
+                node = mapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return new Row(line, null, "invalid JSON: " + e.getOriginalMessage());
+            }
+            if (!node.isObject())
+                return new Row(line, null, "each line must be a JSON object");
+            Map<String, String> values = new HashMap<>();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                JsonNode value = field.getValue();
+                if (value.isContainerNode())
+                    return new Row(line, null, field.getKey() + " must be a single value");
+                values.put(field.getKey(), value.isNull() ? null : value.asText());
+            }
+            return new Row(line, values, null);
+        }
+    }
+
+    // Field access that rejects the row on the first bad value
+    private static final class Fields {
+
+        final Map<String, String> values;
+
+        Fields(Map<String, String> values) {
+            this.values = values;
+        }
+
+        String text(String name, int maxLength, boolean required) {
+            String value = values.get(name);
+            if (value == null || value.isBlank()) {
+                if (required)
+                    throw new InvalidRow(name + " is required");
+                return null;
+            }
+            if (value.length() > maxLength)
+                throw new InvalidRow(name + " is longer than " + maxLength + " characters");
+            return value;
+        }
+
+        double number(String name) {
+            String value = values.get(name);
+            if (value == null || value.isBlank())
+                return 0;
+            double number;
+            try {
+                number = Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidRow(name + " must be a number");
+            }
+            if (!Double.isFinite(number) || number < 0)
+                throw new InvalidRow(name + " must be zero or more");
+            return number;
+        }
+
+        int integer(String name, int min, boolean required) {
+            String value = values.get(name);
+            if (value == null || value.isBlank()) {
+                if (required)
+                    throw new InvalidRow(name + " is required");
+                return 0;
+            }
+            int number;
+            try {
+                number = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidRow(name + " must be a whole number");
+            }
+            if (number < min)
+                throw new InvalidRow(name + " must be at least " + min);
+            return number;
+        }
+
+        Long id(String name) {
+            String value = values.get(name);
+            if (value == null || value.isBlank())
+                return null;
+            try {
+                return Long.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidRow(name + " must be an id");
+            }
+        }
+
+        LocalDate date(String name) {
+            String value = values.get(name);
+            if (value == null || value.isBlank())
+                return null;
+            try {
+                return LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new InvalidRow(name + " must be a date like 2025-01-31");
+            }
+        }
+
+        <E extends Enum<E>> E enumValue(String name, Class<E> type) {
+            String value = values.get(name);
+            if (value == null || value.isBlank())
+                return null;
+            try {
+                return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRow(name + " must be one of " + Arrays.toString(type.getEnumConstants()));
+            }
+        }
+    }
+
+    private static final class InvalidRow extends RuntimeException {
+        InvalidRow(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.CursorPage;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for the task and subject listings. Pages are ordered by
+ * (dueDate, id) and (year, name, id), nulls last, and the cursor holds the sort
+ * key of the last row returned, so each page is one indexed range read however
+ * deep the client has scrolled.
+ */
+@Service
+public class ListingService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final OrientationProperties properties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ListingService(OrientationProperties properties) {
+        this.properties = properties;
+    }
+
+    public record TaskFilter(TaskStatus status, TaskPriority priority, LocalDate dueFrom, LocalDate dueTo) {
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Task> tasks(Long userId, TaskFilter filter, String cursor, int limit, boolean includeSubTasks) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(org.hibernate.Session.class).getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+        Path<LocalDate> dueDate = task.get("dueDate");
+        Path<Long> id = task.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(task.get("userId"), userId));
+        if (filter.status() != null)
+            where.add(cb.equal(task.get("status"), filter.status()));
+        if (filter.priority() != null)
+            where.add(cb.equal(task.get("priority"), filter.priority()));
+        if (filter.dueFrom() != null)
+            where.add(cb.greaterThanOrEqualTo(dueDate, filter.dueFrom()));
+        if (filter.dueTo() != null)
+            where.add(cb.lessThanOrEqualTo(dueDate, filter.dueTo()));
+
+        if (cursor != null) {
+            String[] key = decode(cursor, 2);
+            Long afterId = parseId(key[1]);
+            if (key[0].isEmpty()) {
+                where.add(cb.and(cb.isNull(dueDate), cb.greaterThan(id, afterId)));
+            } else {
+                LocalDate afterDate = parseDate(key[0]);
+                where.add(cb.or(
+                        cb.greaterThan(dueDate, afterDate),
+                        cb.and(cb.equal(dueDate, afterDate), cb.greaterThan(id, afterId)),
+                        cb.isNull(dueDate)));
+            }
+        }
+
+        query.where(where.toArray(new Predicate[0]))
+                .orderBy(cb.asc(dueDate, false), cb.asc(id));
+        List<Task> rows = fetch(query, limit);
+
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Task last = rows.get(limit - 1);
+            next = encode((last.getDueDate() != null ? last.getDueDate().toString() : "") + ":" + last.getId());
+        }
+
+        if (includeSubTasks) {
+            loadChildren(Task.class, "subTasks", rows, Task::getId);
+        } else {
+            rows.forEach(t -> {
+                entityManager.detach(t);
+                t.setSubTasks(null);
+            });
+        }
+        return new CursorPage<>(rows, next);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Subject> subjects(Long userId, Integer year, String cursor, int limit, boolean includeExams) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(org.hibernate.Session.class).getCriteriaBuilder();
+        CriteriaQuery<Subject> query = cb.createQuery(Subject.class);
+        Root<Subject> subject = query.from(Subject.class);
+        Path<Integer> yearPath = subject.get("year");
+        Path<String> name = subject.get("name");
+        Path<Long> id = subject.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(subject.get("userId"), userId));
+        if (year != null)
+            where.add(cb.equal(yearPath, year));
+
+        if (cursor != null) {
+            // year:id for a subject without a name, year:id:name otherwise (the name may contain ':')
+            String[] key = decode(cursor, 3);
+            int afterYear = parseYear(key[0]);
+            Long afterId = parseId(key[1]);
+            Predicate sameYearAfter;
+            if (key.length < 3) {
+                sameYearAfter = cb.and(cb.isNull(name), cb.greaterThan(id, afterId));
+            } else {
+                String afterName = key[2];
+                sameYearAfter = cb.or(
+                        cb.greaterThan(name, afterName),
+                        cb.and(cb.equal(name, afterName), cb.greaterThan(id, afterId)),
+                        cb.isNull(name));
+            }
+            where.add(cb.or(cb.greaterThan(yearPath, afterYear), cb.and(cb.equal(yearPath, afterYear), sameYearAfter)));
+        }
+
+        query.where(where.toArray(new Predicate[0]))
+                .orderBy(cb.asc(yearPath), cb.asc(name, false), cb.asc(id));
+        List<Subject> rows = fetch(query, limit);
+
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Subject last = rows.get(limit - 1);
+            next = encode(last.getYear() + ":" + last.getId() + (last.getName() != null ? ":" + last.getName() : ""));
+        }
+
+        if (includeExams) {
+            loadChildren(Subject.class, "exams", rows, Subject::getId);
+        } else {
+            rows.forEach(s -> {
+                entityManager.detach(s);
+                s.setExams(null);
+            });
+        }
+        return new CursorPage<>(rows, next);
+    }
+
+    public int clampLimit(int limit) {
+        if (limit < 1)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be at least 1");
+        return Math.min(limit, properties.getPaging().getMaxLimit());
+    }
+
+    // One extra row tells whether another page follows
+    private <T> List<T> fetch(CriteriaQuery<T> query, int limit) {
+        return new ArrayList<>(entityManager.createQuery(query).setMaxResults(limit + 1).getResultList());
+    }
+
+    // Initialises the page's collections with one fetch-join query instead of one per row
+    private <T> void loadChildren(Class<T> type, String collection, List<T> rows, Function<T, Long> ids) {
+        if (rows.isEmpty())
+            return;
+        entityManager.createQuery("SELECT DISTINCT e FROM " + type.getSimpleName() + " e LEFT JOIN FETCH e."
+                        + collection + " WHERE e.id IN :ids", type)
+                .setParameter("ids", rows.stream().map(ids).toList())
+                .getResultList();
+    }
+
+    private static String encode(String key) {
+        return ENCODER.encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, int parts) {
+        try {
+            String[] key = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split(":", parts);
+            if (key.length < 2)
+                throw new IllegalArgumentException();
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static int parseYear(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (RuntimeException e) {
+            throw invalidCursor();
+        }
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,232 @@
+package com.orientation.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Model exported by ml/export_model.py, compiled into flat primitive arrays.
+ * classify() allocates nothing: trees are walked over int/double arrays and
+ * class votes go into a per-thread scratch array.
+ */
+public abstract class LocalModel {
+
+    protected final String[] classes;
+
+    protected final int featureCount;
+
+    private final String version;
+
+    protected LocalModel(String[] classes, int featureCount, String version) {
+        this.classes = classes;
+        this.featureCount = featureCount;
+        this.version = version;
+    }
+
+    // Index into classes of the predicted label
+    public abstract int classify(double[] features);
+
+    public String label(double[] features) {
+        return classes[classify(features)];
+    }
+
+    public int featureCount() {
+        return featureCount;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public static LocalModel load(InputStream in) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(in);
+        String[] classes = strings(root.get("classes"));
+        int featureCount = root.path("n_features").asInt(8);
+        String version = root.path("version").asText("local");
+
+        switch (root.path("type").asText()) {
+            case "tree_ensemble":
+                return TreeEnsemble.compile(root, classes, featureCount, version);
+            case "linear":
+                return Linear.compile(root, classes, featureCount, version);
+            default:
+                throw new IOException("Unsupported model type: " + root.path("type").asText());
+        }
+    }
+
+    private static String[] strings(JsonNode array) {
+        String[] values = new String[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).asText();
+        }
+        return values;
+    }
+
+    private static double[] doubles(JsonNode array) {
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).asDouble();
+        }
+        return values;
+    }
+
+    /**
+     * Random forest / extra trees / single decision tree. All nodes of all trees
+     * share one set of arrays; leaves hold class probabilities, which are
+     * averaged over trees like sklearn's predict_proba.
+     */
+    static final class TreeEnsemble extends LocalModel {
+
+        private final int[] roots;
+        private final int[] feature;
+        private final double[] threshold;
+        private final int[] left;
+        private final int[] right;
+        private final double[] leafProba;
+        private final ThreadLocal<double[]> votes;
+
+        private TreeEnsemble(String[] classes, int featureCount, String version, int[] roots, int[] feature,
+                double[] threshold, int[] left, int[] right, double[] leafProba) {
+            super(classes, featureCount, version);
+            this.roots = roots;
+            this.feature = feature;
+            this.threshold = threshold;
+            this.left = left;
+            this.right = right;
+            this.leafProba = leafProba;
+            this.votes = ThreadLocal.withInitial(() -> new double[classes.length]);
+        }
+
+        static TreeEnsemble compile(JsonNode root, String[] classes, int featureCount, String version) {
+            JsonNode trees = root.get("trees");
+            int nodes = 0;
+            for (JsonNode tree : trees) {
+                nodes += tree.get("feature").size();
+            }
+
+            int n = classes.length;
+            int[] roots = new int[trees.size()];
+            int[] feature = new int[nodes];
+            double[] threshold = new double[nodes];
+            int[] left = new int[nodes];
+            int[] right = new int[nodes];
+            double[] leafProba = new double[nodes * n];
+
+            int offset = 0;
+            for (int t = 0; t < trees.size(); t++) {
+                JsonNode tree = trees.get(t);
+                int size = tree.get("feature").size();
+                roots[t] = offset;
+                for (int i = 0; i < size; i++) {
+                    int node = offset + i;
+                    int leftChild = tree.get("children_left").get(i).asInt();
+                    int rightChild = tree.get("children_right").get(i).asInt();
+                    feature[node] = tree.get("feature").get(i).asInt();
+                    threshold[node] = tree.get("threshold").get(i).asDouble();
+                    left[node] = leftChild < 0 ? -1 : offset + leftChild;
+                    right[node] = rightChild < 0 ? -1 : offset + rightChild;
+
+                    double[] value = doubles(tree.get("value").get(i));
+                    double total = 0;
+                    for (double v : value) {
+                        total += v;
+                    }
+                    for (int c = 0; c < n; c++) {
+                        leafProba[node * n + c] = total > 0 ? value[c] / total : 0;
+                    }
+                }
+                offset += size;
+            }
+            return new TreeEnsemble(classes, featureCount, version, roots, feature, threshold, left, right, leafProba);
+        }
+
+        @Override
+        public int classify(double[] x) {
+            int n = classes.length;
+            double[] sum = votes.get();
+            Arrays.fill(sum, 0);
+
+            for (int root : roots) {
+                int node = root;
+                while (left[node] >= 0) {
+                    // sklearn compares float32 inputs against the thresholds
+                    node = (float) x[feature[node]] <= threshold[node] ? left[node] : right[node];
+                }
+                int base = node * n;
+                for (int c = 0; c < n; c++) {
+                    sum[c] += leafProba[base + c];
+                }
+            }
+
+            int best = 0;
+            for (int c = 1; c < n; c++) {
+                if (sum[c] > sum[best])
+                    best = c;
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Logistic regression / linear SVM, optionally behind a StandardScaler:
+     * argmax over classes of coef . ((x - mean) / scale) + intercept.
+     */
+    static final class Linear extends LocalModel {
+
+        private final double[] coef;
+        private final double[] intercept;
+        private final double[] mean;
+        private final double[] scale;
+
+        private Linear(String[] classes, int featureCount, String version, double[] coef, double[] intercept,
+                double[] mean, double[] scale) {
+            super(classes, featureCount, version);
+            this.coef = coef;
+            this.intercept = intercept;
+            this.mean = mean;
+            this.scale = scale;
+        }
+
+        static Linear compile(JsonNode root, String[] classes, int featureCount, String version) {
+            JsonNode rows = root.get("coef");
+            double[] coef = new double[rows.size() * featureCount];
+            for (int r = 0; r < rows.size(); r++) {
+                double[] row = doubles(rows.get(r));
+                System.arraycopy(row, 0, coef, r * featureCount, featureCount);
+            }
+            double[] mean = new double[featureCount];
+            double[] scale = new double[featureCount];
+            Arrays.fill(scale, 1);
+            if (root.hasNonNull("scaler")) {
+                mean = doubles(root.get("scaler").get("mean"));
+                scale = doubles(root.get("scaler").get("scale"));
+            }
+            return new Linear(classes, featureCount, version, coef, doubles(root.get("intercept")), mean, scale);
+        }
+
+        @Override
+        public int classify(double[] x) {
+            int rows = intercept.length;
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int r = 0; r < rows; r++) {
+                double score = intercept[r];
+                int base = r * featureCount;
+                for (int f = 0; f < featureCount; f++) {
+                    score += coef[base + f] * ((x[f] - mean[f]) / scale[f]);
+                }
+                // Binary models have a single row: positive score means the second class
+                if (rows == 1)
+                    return score > 0 ? 1 : 0;
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = r;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Scores in-process with the artifact written by ml/export_model.py, no Python server needed
+@Component
+@ConditionalOnProperty(name = "orientation.predictor.mode", havingValue = "local")
+public class LocalOrientationPredictor implements OrientationPredictor {
+
+    private final LocalModel model;
+
+    public LocalOrientationPredictor(OrientationProperties properties, ResourceLoader resourceLoader) {
+        String location = properties.getPredictor().getModelPath();
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            this.model = LocalModel.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load local orientation model from " + location, e);
+        }
+    }
+
+    @Override
+    public Predictions predict(List<double[]> rows) {
+        List<String> labels = new ArrayList<>(rows.size());
+        List<String> errors = new ArrayList<>(rows.size());
+        for (double[] row : rows) {
+            if (row.length != model.featureCount()) {
+                labels.add(null);
+                errors.add("Error from Model: Expected " + model.featureCount() + " features");
+            } else {
+                labels.add(model.label(row));
+                errors.add(null);
+            }
+        }
+        return new Predictions(labels, errors, model.version());
+    }
+
+    // Scoring is cheaper than a cache lookup
+    @Override
+    public boolean cacheable() {
+        return false;
+    }
+
+    public LocalModel model() {
+        return model;
+    }
+}
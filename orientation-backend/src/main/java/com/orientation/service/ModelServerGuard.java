@@ -0,0 +1,103 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker plus concurrency bulkhead around calls to the Python server.
+ * While the server is unhealthy callers get a ModelUnavailableException
+ * straight away instead of each waiting out the connect timeout.
+ */
+@Component
+public class ModelServerGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelServerGuard.class);
+
+    private final CircuitBreaker breaker;
+
+    private final Bulkhead bulkhead;
+
+    private final Map<String, AtomicLong> transitions = new ConcurrentHashMap<>();
+
+    public ModelServerGuard(OrientationProperties properties) {
+        OrientationProperties.Breaker b = properties.getBreaker();
+        this.breaker = CircuitBreaker.of("model-server", CircuitBreakerConfig.custom()
+                .failureRateThreshold(b.getFailureRateThreshold())
+                .slowCallRateThreshold(b.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(b.getSlowCallDurationThreshold())
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(b.getSlidingWindowSize())
+                .minimumNumberOfCalls(b.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(b.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(b.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                // A 4xx means we sent a bad request, not that the server is unhealthy
+                .recordException(e -> e instanceof RestClientException && !(e instanceof HttpClientErrorException))
+                .build());
+        this.bulkhead = Bulkhead.of("model-server", BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(properties.getBulkhead().getMaxWait())
+                .build());
+
+        breaker.getEventPublisher().onStateTransition(event -> transitions
+                .computeIfAbsent(event.getStateTransition().name(), k -> new AtomicLong())
+                .incrementAndGet());
+    }
+
+    public <T> T call(Supplier<T> call) {
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(breaker, call)).get();
+        } catch (CallNotPermittedException e) {
+            throw unavailable("Model server circuit is open", e);
+        } catch (BulkheadFullException e) {
+            throw unavailable("Too many concurrent model calls", e);
+        } catch (RestClientException e) {
+            if (e instanceof HttpClientErrorException)
+                throw e;
+            // The cause names the server's address; it stays in the log, out of client responses
+            log.warn("Model server call failed", e);
+            throw unavailable("Model server unreachable", e);
+        }
+    }
+
+    public String state() {
+        return breaker.getState().name();
+    }
+
+    public Map<String, Object> stats() {
+        CircuitBreaker.Metrics metrics = breaker.getMetrics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", state());
+        result.put("failureRate", metrics.getFailureRate());
+        result.put("slowCallRate", metrics.getSlowCallRate());
+        result.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+        result.put("failedCalls", metrics.getNumberOfFailedCalls());
+        result.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+        Map<String, Long> counts = new LinkedHashMap<>();
+        transitions.forEach((transition, count) -> counts.put(transition, count.get()));
+        result.put("transitions", counts);
+        result.put("bulkheadAvailable", bulkhead.getMetrics().getAvailableConcurrentCalls());
+        result.put("bulkheadMax", bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+        return result;
+    }
+
+    private ModelUnavailableException unavailable(String message, Throwable cause) {
+        return new ModelUnavailableException(message, state(), cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.orientation.service;
+
+// The model could not be asked at all: server down, breaker open or bulkhead full
+public class ModelUnavailableException extends RuntimeException {
+
+    private final String breakerState;
+
+    public ModelUnavailableException(String message, String breakerState, Throwable cause) {
+        super(message, cause);
+        this.breakerState = breakerState;
+    }
+
+    public String getBreakerState() {
+        return breakerState;
+    }
+}
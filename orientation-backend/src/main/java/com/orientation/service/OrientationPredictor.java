@@ -0,0 +1,23 @@
+package com.orientation.service;
+
+import java.util.List;
+
+/**
+ * Scores eight-feature vectors
+ * [math, physics, chemistry, biology, english, geography, selfStudy, absence].
+ * Selected with orientation.predictor.mode: "remote" (Python server) or "local" (in-JVM).
+ */
+public interface OrientationPredictor {
+
+    // One entry per row, in row order. Throws when the model cannot be reached at all.
+    Predictions predict(List<double[]> rows);
+
+    // Whether results are worth keeping in PredictionCache
+    default boolean cacheable() {
+        return true;
+    }
+
+    // labels.get(i) is null when row i failed, errors.get(i) then says why
+    record Predictions(List<String> labels, List<String> errors, String modelVersion) {
+    }
+}
@@ -1,53 +1,173 @@
 
 package com.orientation.service;
 
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.PredictionResult;
 import com.orientation.model.StudentInput;
+import com.orientation.service.OrientationPredictor.Predictions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 public class OrientationService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrientationService.class);
+
+    private final OrientationProperties properties;
+
+    private final OrientationPredictor predictor;
+
+    private final ExecutorService batchExecutor;
+
+    private final PredictionCache cache;
+
+    private final MeterRegistry meterRegistry;
+
+    public OrientationService(OrientationProperties properties, OrientationPredictor predictor,
+            @Qualifier("modelBatchExecutor") ExecutorService batchExecutor,
+            PredictionCache cache, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.predictor = predictor;
+        this.batchExecutor = batchExecutor;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Timed as orientation.predict by outcome; failures are also counted in orientation.predict.errors.
+    // Never returns an error text as the label: rejected inputs and failures are thrown
     public String predictOrientation(StudentInput input) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
         try {
-            // Prepare the payload
-            Map<String, Object> payload = new HashMap<>();
-            List<Double> features = Arrays.asList(
-                input.getMathScore(),
-                input.getPhysicsScore(),
-                input.getChemistryScore(),
-                input.getBiologyScore(),
-                input.getEnglishScore(),
-                input.getGeographyScore(),
-                input.getWeeklySelfStudyHours(),
-                input.getAbsenceDays()
-            );
-            payload.put("features", features);
-
-            // Send Request to Python Server
-            String pythonApiUrl = "http://127.0.0.1:5000/predict";
-            RestTemplate restTemplate = new RestTemplate();
-            
-            // We use generic map for response to keep it simple
-            @SuppressWarnings("unchecked")
-            Map<String, String> response = restTemplate.postForObject(pythonApiUrl, payload, Map.class);
-            
-            if (response != null && response.containsKey("prediction")) {
-                return response.get("prediction");
-            } else if (response != null && response.containsKey("error")) {
-                return "Error from Model: " + response.get("error");
+            double[] features = toFeatures(input);
+            String cached = lookup(features);
+            if (cached != null) {
+                outcome = "cache_hit";
+                return cached;
+            }
+
+            Predictions response = predictor.predict(List.of(features));
+            String prediction = response.labels().get(0);
+            if (prediction == null) {
+                outcome = "rejected";
+                throw new PredictionRejectedException(response.errors().get(0));
+            }
+
+            store(features, prediction, response.modelVersion());
+            outcome = "success";
+            return prediction;
+
+        } catch (ModelUnavailableException e) {
+            // Not a prediction: let the controller answer 503 instead of a 200 with an error string
+            outcome = "unavailable";
+            throw e;
+        } catch (PredictionRejectedException e) {
+            throw e;
+        } catch (HttpClientErrorException e) {
+            // The model refused the request itself, so the fault is on this side, not in the input
+            outcome = "bad_request";
+            log.warn("Model server answered {} to a prediction request", e.getStatusCode());
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Prediction failed", e);
+            throw new PredictionFailedException("Prediction failed", e);
+        } finally {
+            sample.stop(meterRegistry.timer("orientation.predict", "outcome", outcome));
+            if (!outcome.equals("success") && !outcome.equals("cache_hit"))
+                meterRegistry.counter("orientation.predict.errors", "outcome", outcome).increment();
+        }
+    }
+
+    // Splits the inputs into chunks, sends each chunk as one predictor call
+    // and returns one result per input, in input order
+    public List<PredictionResult> predictBatch(List<StudentInput> inputs) {
+        int chunkSize = Math.max(1, properties.getBatch().getChunkSize());
+        PredictionResult[] results = new PredictionResult[inputs.size()];
+
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            if (inputs.get(i) == null) {
+                results[i] = PredictionResult.failure(i, "Missing input");
+                continue;
+            }
+            String cached = lookup(toFeatures(inputs.get(i)));
+            if (cached != null) {
+                results[i] = PredictionResult.success(i, cached);
             } else {
-                return "Unknown Error: No prediction received";
+                pending.add(i);
             }
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "Error calling Python API: " + e.getMessage() + " (Is the Python server running?)";
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> indexes = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            chunks.add(CompletableFuture.runAsync(() -> predictChunk(inputs, indexes, results), batchExecutor));
         }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+
+        return Arrays.asList(results);
+    }
+
+    private void predictChunk(List<StudentInput> inputs, List<Integer> indexes, PredictionResult[] results) {
+        try {
+            List<double[]> rows = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                rows.add(toFeatures(inputs.get(index)));
+            }
+
+            Predictions response = predictor.predict(rows);
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                String prediction = response.labels().get(i);
+                if (prediction == null) {
+                    results[index] = PredictionResult.failure(index, response.errors().get(i));
+                } else {
+                    results[index] = PredictionResult.success(index, prediction);
+                    store(rows.get(i), prediction, response.modelVersion());
+                }
+            }
+        } catch (ModelUnavailableException e) {
+            for (int index : indexes) {
+                results[index] = PredictionResult.failure(index, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.error("Batch prediction chunk of {} inputs failed", indexes.size(), e);
+            for (int index : indexes) {
+                results[index] = PredictionResult.failure(index, "Prediction failed");
+            }
+        }
+    }
+
+    private String lookup(double[] features) {
+        return predictor.cacheable() ? cache.get(features) : null;
+    }
+
+    private void store(double[] features, String prediction, String modelVersion) {
+        if (predictor.cacheable())
+            cache.put(features, prediction, modelVersion);
+    }
+
+    private static double[] toFeatures(StudentInput input) {
+        return new double[] {
+            input.getMathScore(),
+            input.getPhysicsScore(),
+            input.getChemistryScore(),
+            input.getBiologyScore(),
+            input.getEnglishScore(),
+            input.getGeographyScore(),
+            input.getWeeklySelfStudyHours(),
+            input.getAbsenceDays()
+        };
     }
-}
\ No newline at end of file
+}
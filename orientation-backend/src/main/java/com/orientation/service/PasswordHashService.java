@@ -0,0 +1,98 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Password hashing on the bounded passwordHashExecutor. A full queue throws
+ * RejectedExecutionException straight away rather than letting a login burst
+ * pile onto the request threads; the returned futures also time out after
+ * orientation.auth.hash-timeout, queueing included. Queue depth, busy threads,
+ * hash and queue-wait times, rejections and upgrades are published as
+ * orientation.password.hash.* meters.
+ */
+@Service
+public class PasswordHashService {
+
+    /**
+     * Outcome of checking a password; {@code upgradedHash} is set when it
+     * matched a hash weaker than the configured strength.
+     */
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+
+    private final PasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final OrientationProperties properties;
+
+    private final Timer hashTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+    private final Counter upgraded;
+
+    public PasswordHashService(PasswordEncoder encoder,
+                               @Qualifier("passwordHashExecutor") ThreadPoolExecutor executor,
+                               OrientationProperties properties, MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.executor = executor;
+        this.properties = properties;
+        Gauge.builder("orientation.password.hash.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("orientation.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes running")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("orientation.password.hash")
+                .tag("strength", String.valueOf(properties.getAuth().getBcryptStrength()))
+                .register(meterRegistry);
+        waitTimer = meterRegistry.timer("orientation.password.hash.wait");
+        rejected = meterRegistry.counter("orientation.password.hash.rejected");
+        upgraded = meterRegistry.counter("orientation.password.hash.upgraded");
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> timed(() -> encoder.encode(rawPassword)));
+    }
+
+    // Checks and, when the stored hash is out of date, rehashes in the same task
+    public CompletableFuture<Verification> verify(String rawPassword, String storedHash) {
+        return submit(() -> {
+            boolean matches = timed(() -> encoder.matches(rawPassword, storedHash));
+            if (!matches || !encoder.upgradeEncoding(storedHash))
+                return new Verification(matches, null);
+            upgraded.increment();
+            return new Verification(true, timed(() -> encoder.encode(rawPassword)));
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return work.get();
+            }, executor).orTimeout(properties.getAuth().getHashTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private <T> T timed(Supplier<T> hash) {
+        return hashTimer.record(hash);
+    }
+}
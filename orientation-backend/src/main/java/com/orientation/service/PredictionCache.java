@@ -0,0 +1,112 @@
+package com.orientation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.orientation.config.OrientationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Successful model predictions keyed on the quantised feature vector.
+ * Entries remember the model version that produced them; when the model
+ * server reports a different version the whole cache is dropped.
+ */
+@Component
+public class PredictionCache {
+
+    private final OrientationProperties.Cache settings;
+
+    private final Cache<FeatureKey, Entry> cache;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private volatile String modelVersion;
+
+    public PredictionCache(OrientationProperties properties) {
+        this.settings = properties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public String get(double[] features) {
+        if (!settings.isEnabled())
+            return null;
+        Entry entry = cache.getIfPresent(key(features));
+        if (entry == null || !Objects.equals(entry.modelVersion(), modelVersion))
+            return null;
+        return entry.prediction();
+    }
+
+    // Only real predictions go in here, never error messages
+    public void put(double[] features, String prediction, String version) {
+        observeModelVersion(version);
+        if (settings.isEnabled() && prediction != null && Objects.equals(version, modelVersion))
+            cache.put(key(features), new Entry(prediction, version));
+    }
+
+    public void observeModelVersion(String version) {
+        if (version == null || version.equals(modelVersion))
+            return;
+        synchronized (this) {
+            if (version.equals(modelVersion))
+                return;
+            if (modelVersion != null)
+                invalidations.incrementAndGet();
+            modelVersion = version;
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("invalidations", invalidations.get());
+        result.put("modelVersion", modelVersion);
+        return result;
+    }
+
+    private FeatureKey key(double[] features) {
+        double precision = settings.getPrecision();
+        long[] buckets = new long[features.length];
+        for (int i = 0; i < features.length; i++) {
+            buckets[i] = precision > 0 ? Math.round(features[i] / precision) : Double.doubleToLongBits(features[i]);
+        }
+        return new FeatureKey(buckets);
+    }
+
+    private record Entry(String prediction, String modelVersion) {
+    }
+
+    private static final class FeatureKey {
+        private final long[] buckets;
+        private final int hash;
+
+        FeatureKey(long[] buckets) {
+            this.buckets = buckets;
+            this.hash = Arrays.hashCode(buckets);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FeatureKey key && Arrays.equals(buckets, key.buckets);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
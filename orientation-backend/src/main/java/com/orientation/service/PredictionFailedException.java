@@ -0,0 +1,9 @@
+package com.orientation.service;
+
+// Anything else that went wrong while predicting; logged where it happened
+public class PredictionFailedException extends RuntimeException {
+
+    public PredictionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.orientation.service;
+
+// The model answered but would not score this input; the message says why
+public class PredictionRejectedException extends RuntimeException {
+
+    public PredictionRejectedException(String message) {
+        super(message);
+    }
+}
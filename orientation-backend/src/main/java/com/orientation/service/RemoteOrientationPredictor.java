@@ -0,0 +1,96 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Calls ml/predict.py: /predict for a single row, /predict/batch for several
+@Component
+@ConditionalOnProperty(name = "orientation.predictor.mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteOrientationPredictor implements OrientationPredictor {
+
+    // Set by predict.py so cached predictions can be dropped when the model is replaced
+    public static final String MODEL_VERSION_HEADER = "X-Model-Version";
+
+    private static final ParameterizedTypeReference<Map<String, String>> SINGLE_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final ParameterizedTypeReference<Map<String, List<String>>> BATCH_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    private final OrientationProperties properties;
+
+    private final RestTemplate restTemplate;
+
+    private final ModelServerGuard guard;
+
+    public RemoteOrientationPredictor(OrientationProperties properties,
+            @Qualifier("modelRestTemplate") RestTemplate restTemplate, ModelServerGuard guard) {
+        this.properties = properties;
+        this.restTemplate = restTemplate;
+        this.guard = guard;
+    }
+
+    @Override
+    public Predictions predict(List<double[]> rows) {
+        return rows.size() == 1 ? predictOne(rows.get(0)) : predictMany(rows);
+    }
+
+    private Predictions predictOne(double[] features) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("features", features);
+
+        String pythonApiUrl = properties.getModel().getUrl() + "/predict";
+        ResponseEntity<Map<String, String>> entity = guard.call(() -> restTemplate.exchange(
+                pythonApiUrl, HttpMethod.POST, new HttpEntity<>(payload), SINGLE_RESPONSE));
+        Map<String, String> response = entity.getBody();
+        String version = entity.getHeaders().getFirst(MODEL_VERSION_HEADER);
+
+        if (response != null && response.containsKey("prediction")) {
+            return new Predictions(List.of(response.get("prediction")), Collections.singletonList(null), version);
+        } else if (response != null && response.containsKey("error")) {
+            return failed(1, "Error from Model: " + response.get("error"), version);
+        } else {
+            return failed(1, "Unknown Error: No prediction received", version);
+        }
+    }
+
+    private Predictions predictMany(List<double[]> rows) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("instances", rows);
+
+        String pythonApiUrl = properties.getModel().getUrl() + "/predict/batch";
+        ResponseEntity<Map<String, List<String>>> entity = guard.call(() -> restTemplate.exchange(
+                pythonApiUrl, HttpMethod.POST, new HttpEntity<>(payload), BATCH_RESPONSE));
+        Map<String, List<String>> response = entity.getBody();
+        String version = entity.getHeaders().getFirst(MODEL_VERSION_HEADER);
+
+        List<String> predictions = response != null ? response.get("predictions") : null;
+        List<String> errors = response != null ? response.get("errors") : null;
+        if (predictions == null || predictions.size() != rows.size())
+            return failed(rows.size(), "Unknown Error: No prediction received", version);
+
+        List<String> messages = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            String error = errors != null ? errors.get(i) : null;
+            messages.add(error != null ? "Error from Model: " + error : null);
+        }
+        return new Predictions(predictions, messages, version);
+    }
+
+    private static Predictions failed(int size, String error, String version) {
+        return new Predictions(Collections.nCopies(size, null), Collections.nCopies(size, error), version);
+    }
+}
@@ -0,0 +1,133 @@
+package com.orientation.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orientation.config.OrientationProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Stateless session tokens: {@code base64url(userId:expiry).base64url(HMAC-SHA256)}.
+ * Verifying needs only the key, never the database; tokens already verified
+ * are remembered in a bounded cache so repeat requests skip the HMAC, with the
+ * expiry still checked on every use.
+ */
+@Service
+public class SessionTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Session(Long userId, Instant expiresAt) {
+    }
+
+    private final SecretKeySpec key;
+
+    private final Duration ttl;
+
+    private final Clock clock;
+
+    private final Cache<String, Session> verified;
+
+    // Mac instances are not thread-safe, and getInstance is too slow to call per request
+    private final ThreadLocal<Mac> macs;
+
+    @Autowired
+    public SessionTokenService(OrientationProperties properties) {
+        this(properties.getAuth(), Clock.systemUTC());
+    }
+
+    public SessionTokenService(OrientationProperties.Auth auth, Clock clock) {
+        this.key = new SecretKeySpec(secret(auth.getTokenSecret()), ALGORITHM);
+        this.ttl = auth.getTokenTtl();
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(auth.getVerifiedCacheSize())
+                .expireAfterWrite(ttl)
+                .build();
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public String issue(Long userId) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = ENCODER.encodeToString(
+                (userId + ":" + expiresAt.getEpochSecond()).getBytes(StandardCharsets.US_ASCII));
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public Instant expiresAt(String token) {
+        Session session = verify(token);
+        return session == null ? null : session.expiresAt();
+    }
+
+    /**
+     * The session a token carries, or null when it is malformed, tampered with
+     * or expired.
+     */
+    public Session verify(String token) {
+        if (token == null)
+            return null;
+        Session session = verified.getIfPresent(token);
+        if (session == null) {
+            session = check(token);
+            if (session == null)
+                return null;
+            verified.put(token, session);
+        }
+        return clock.instant().isBefore(session.expiresAt()) ? session : null;
+    }
+
+    private Session check(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.'))
+            return null;
+        String payload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature))
+                return null;
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.US_ASCII).split(":");
+            if (claims.length != 2)
+                return null;
+            return new Session(Long.parseLong(claims[0]), Instant.ofEpochSecond(Long.parseLong(claims[1])));
+        } catch (IllegalArgumentException e) {
+            // Bad base64 or a non-numeric claim
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Without a configured secret every restart signs with a fresh key, so old tokens stop verifying
+    private static byte[] secret(String configured) {
+        if (configured != null && !configured.isBlank())
+            return configured.getBytes(StandardCharsets.UTF_8);
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+}
@@ -0,0 +1,114 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.StudyHoursDaily;
+import com.orientation.model.WeekHours;
+import com.orientation.repository.StudyHoursDailyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Study-hours analytics read from the study_hours_daily rollup, O(days) rows per request
+@Service
+public class StudyAnalyticsService {
+
+    private final OrientationProperties properties;
+
+    private final StudyHoursDailyRepository rollupRepository;
+
+    public StudyAnalyticsService(OrientationProperties properties, StudyHoursDailyRepository rollupRepository) {
+        this.properties = properties;
+        this.rollupRepository = rollupRepository;
+    }
+
+    // All done hours, tasks plus subtasks, whatever their completion date
+    @Transactional(readOnly = true)
+    public double totalHours(Long userId) {
+        return rollupRepository.sumDoneHours(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public double recentHours(Long userId, LocalDate today) {
+        return recentHours(rollupRepository.findByUserIdAndDayGreaterThanEqual(userId, recentStart(today)), today);
+    }
+
+    // Tasks only, subtasks do not count as completions
+    @Transactional(readOnly = true)
+    public int recentCompletedCount(Long userId, LocalDate today) {
+        return recentCompletedCount(rollupRepository.findByUserIdAndDayGreaterThanEqual(userId, recentStart(today)), today);
+    }
+
+    // Rollup rows covering both the recent window and the hours history, so one read serves all three
+    @Transactional(readOnly = true)
+    public List<StudyHoursDaily> windowDays(Long userId, LocalDate today) {
+        LocalDate from = historyStart(today);
+        LocalDate recent = recentStart(today);
+        return rollupRepository.findByUserIdAndDayGreaterThanEqual(userId, recent.isBefore(from) ? recent : from);
+    }
+
+    // The overloads below take rows from windowDays (or any superset of the window they need)
+    public double recentHours(List<StudyHoursDaily> days, LocalDate today) {
+        LocalDate start = recentStart(today);
+        double hours = 0;
+        for (StudyHoursDaily day : days) {
+            if (!day.getDay().isBefore(start))
+                hours += day.getDoneHours();
+        }
+        return hours;
+    }
+
+    public int recentCompletedCount(List<StudyHoursDaily> days, LocalDate today) {
+        LocalDate start = recentStart(today);
+        long count = 0;
+        for (StudyHoursDaily day : days) {
+            if (!day.getDay().isBefore(start))
+                count += day.getCompletedCount();
+        }
+        return (int) count;
+    }
+
+    // Done hours per bucket of bucketDays days, oldest first, the newest bucket ending today
+    @Transactional(readOnly = true)
+    public List<WeekHours> hoursHistory(Long userId, LocalDate today) {
+        return hoursHistory(rollupRepository.findByUserIdAndDayGreaterThanEqual(userId, historyStart(today)), today);
+    }
+
+    public List<WeekHours> hoursHistory(List<StudyHoursDaily> days, LocalDate today) {
+        OrientationProperties.Analytics analytics = properties.getAnalytics();
+        int buckets = analytics.getHistoryBuckets();
+        int bucketDays = Math.max(1, analytics.getBucketDays());
+        LocalDate from = historyStart(today);
+
+        double[] hours = new double[buckets];
+        for (StudyHoursDaily day : days) {
+            if (day.getDay().isBefore(from) || day.getDay().isAfter(today))
+                continue;
+            int bucket = (int) (ChronoUnit.DAYS.between(day.getDay(), today) / bucketDays);
+            hours[bucket] += day.getDoneHours();
+        }
+
+        List<WeekHours> result = new ArrayList<>(buckets);
+        for (int i = buckets - 1; i >= 0; i--) {
+            LocalDate weekEnd = today.minusDays((long) i * bucketDays);
+            LocalDate weekStart = weekEnd.minusDays(bucketDays - 1);
+            String label = String.format("%s - %s",
+                    weekStart.getMonth().toString().substring(0, 3) + " " + weekStart.getDayOfMonth(),
+                    weekEnd.getMonth().toString().substring(0, 3) + " " + weekEnd.getDayOfMonth());
+            result.add(new WeekHours(weekStart.toString(), weekEnd.toString(), hours[i], label));
+        }
+        return result;
+    }
+
+    private LocalDate recentStart(LocalDate today) {
+        return today.minusDays(properties.getAnalytics().getRecentDays());
+    }
+
+    private LocalDate historyStart(LocalDate today) {
+        OrientationProperties.Analytics analytics = properties.getAnalytics();
+        return today.minusDays((long) analytics.getHistoryBuckets() * Math.max(1, analytics.getBucketDays()) - 1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.orientation.service;
+
+import com.orientation.model.StudyHoursDaily;
+import com.orientation.model.SubTask;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.TaskRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Maintains the study_hours_daily rollup. Write endpoints take a snapshot of a
+ * task's contribution before changing it and apply the difference afterwards,
+ * in the same transaction; rebuild() and check() recompute from the raw rows.
+ * Days are changed by in-place increments, and a day's first write creates its
+ * row with ON CONFLICT DO NOTHING before incrementing, so concurrent writers to
+ * one day neither lose updates nor fail on the (user_id, day) key.
+ */
+@Service
+public class StudyHoursRollupService {
+
+    // Hours are summed as doubles, so allow rounding noise when comparing
+    private static final double EPSILON = 1e-6;
+
+    private final StudyHoursDailyRepository rollupRepository;
+
+    private final TaskRepository taskRepository;
+
+    public StudyHoursRollupService(StudyHoursDailyRepository rollupRepository, TaskRepository taskRepository) {
+        this.rollupRepository = rollupRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    // What a task and its subtasks add to the rollup, per day: [doneHours, completedCount]
+    public Map<LocalDate, double[]> contributions(Task task) {
+        Map<LocalDate, double[]> days = new HashMap<>();
+        if (task.getStatus() == TaskStatus.DONE) {
+            double[] day = days.computeIfAbsent(dayOf(task.getCompletedAt()), d -> new double[2]);
+            day[0] += task.getEstimatedHours();
+            day[1]++;
+        }
+        if (task.getSubTasks() != null) {
+            for (SubTask subTask : task.getSubTasks()) {
+                if (subTask.getStatus() == TaskStatus.DONE)
+                    days.computeIfAbsent(dayOf(subTask.getCompletedAt()), d -> new double[2])[0]
+                            += subTask.getEstimatedHours();
+            }
+        }
+        return days;
+    }
+
+    @Transactional
+    public void apply(Long userId, Map<LocalDate, double[]> before, Map<LocalDate, double[]> after) {
+        if (userId == null)
+            return;
+        TreeSet<LocalDate> days = new TreeSet<>(before.keySet());
+        days.addAll(after.keySet());
+        for (LocalDate day : days) {
+            double[] old = before.getOrDefault(day, new double[2]);
+            double[] now = after.getOrDefault(day, new double[2]);
+            double hours = now[0] - old[0];
+            long count = (long) (now[1] - old[1]);
+            if (Math.abs(hours) < EPSILON && count == 0)
+                continue;
+            if (rollupRepository.addToDay(userId, day, hours, count) == 0) {
+                rollupRepository.createDayIfAbsent(userId, day);
+                rollupRepository.addToDay(userId, day, hours, count);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rollupRepository.count() == 0 && taskRepository.count() > 0)
+            rebuild();
+    }
+
+    // Recomputes every user's rows from tasks and subtasks; returns the number of users rebuilt
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllInBatch();
+        List<Long> userIds = taskRepository.findDistinctUserIds();
+        for (Long userId : userIds) {
+            List<StudyHoursDaily> rows = new ArrayList<>();
+            expected(userId).forEach((day, totals) ->
+                    rows.add(new StudyHoursDaily(null, userId, day, totals[0], (long) totals[1])));
+            rollupRepository.saveAll(rows);
+        }
+        return userIds.size();
+    }
+
+    // Rows where the rollup disagrees with the raw tasks; empty when consistent
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> check() {
+        TreeSet<Long> userIds = new TreeSet<>(taskRepository.findDistinctUserIds());
+        userIds.addAll(rollupRepository.findDistinctUserIds());
+
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+        for (Long userId : userIds) {
+            Map<LocalDate, double[]> expected = expected(userId);
+            Map<LocalDate, double[]> actual = new HashMap<>();
+            for (StudyHoursDaily row : rollupRepository.findByUserId(userId)) {
+                actual.put(row.getDay(), new double[] { row.getDoneHours(), row.getCompletedCount() });
+            }
+
+            TreeSet<LocalDate> days = new TreeSet<>(expected.keySet());
+            days.addAll(actual.keySet());
+            for (LocalDate day : days) {
+                double[] want = expected.getOrDefault(day, new double[2]);
+                double[] have = actual.getOrDefault(day, new double[2]);
+                if (Math.abs(want[0] - have[0]) < EPSILON && want[1] == have[1])
+                    continue;
+                Map<String, Object> mismatch = new LinkedHashMap<>();
+                mismatch.put("userId", userId);
+                mismatch.put("day", day.toString());
+                mismatch.put("expectedHours", want[0]);
+                mismatch.put("actualHours", have[0]);
+                mismatch.put("expectedCompleted", (long) want[1]);
+                mismatch.put("actualCompleted", (long) have[1]);
+                mismatches.add(mismatch);
+            }
+        }
+        return mismatches;
+    }
+
+    private Map<LocalDate, double[]> expected(Long userId) {
+        Map<LocalDate, double[]> days = new HashMap<>();
+        for (Object[] row : taskRepository.sumDoneHoursByDay(userId)) {
+            double[] day = days.computeIfAbsent(dayOf((LocalDate) row[0]), d -> new double[2]);
+            day[0] += ((Number) row[1]).doubleValue();
+            day[1] += ((Number) row[2]).longValue();
+        }
+        return days;
+    }
+
+    private static LocalDate dayOf(LocalDate completedAt) {
+        return completedAt != null ? completedAt : StudyHoursDaily.UNDATED;
+    }
+}
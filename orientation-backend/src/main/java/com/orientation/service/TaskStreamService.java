@@ -0,0 +1,52 @@
+package com.orientation.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Task;
+import com.orientation.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's full task list as JSON while reading it: rows come from a
+ * database cursor and go out through a Jackson generator one task at a time,
+ * so memory stays flat however many tasks the user has.
+ */
+@Service
+public class TaskStreamService {
+
+    private final TaskRepository taskRepository;
+
+    private final ObjectMapper mapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskStreamService(TaskRepository taskRepository, ObjectMapper mapper) {
+        this.taskRepository = taskRepository;
+        this.mapper = mapper;
+    }
+
+    // Same JSON array as serializing findWithSubTasksByUserId, in id order
+    @Transactional(readOnly = true)
+    public void writeTasks(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator json = mapper.createGenerator(out);
+                Stream<Task> tasks = taskRepository.streamWithSubTasksByUserId(userId)) {
+            json.writeStartArray();
+            for (Iterator<Task> it = tasks.iterator(); it.hasNext();) {
+                Task task = it.next();
+                json.writeObject(task);
+                // Written tasks are not needed again; keep the persistence context from growing
+                entityManager.detach(task);
+            }
+            json.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.orientation.service;
+
+// Published by write endpoints when a user's tasks, subtasks, subjects or exams change
+public record UserDataChangedEvent(Long userId) {
+}
@@ -0,0 +1,11 @@
+-- The per-day study hours rollup. Databases baselined at V1 never had it, so it is created
+-- here rather than in V1; StudyHoursRollupService fills it from tasks on the first start.
+
+CREATE TABLE IF NOT EXISTS study_hours_daily (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    done_hours FLOAT(53) NOT NULL,
+    completed_count BIGINT NOT NULL,
+    UNIQUE (user_id, day)
+);
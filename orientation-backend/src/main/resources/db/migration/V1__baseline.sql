@@ -0,0 +1,58 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate),
+-- so this script only runs against an empty database.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS tasks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(255),
+    description VARCHAR(1000),
+    user_id BIGINT,
+    priority VARCHAR(255),
+    status VARCHAR(255),
+    estimated_hours FLOAT(53) NOT NULL,
+    actual_hours FLOAT(53) NOT NULL,
+    due_date DATE,
+    created_at DATE,
+    completed_at DATE
+);
+
+CREATE TABLE IF NOT EXISTS subtasks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(255),
+    status VARCHAR(255),
+    description VARCHAR(255),
+    priority VARCHAR(255),
+    due_date DATE,
+    completed_hours FLOAT(53) NOT NULL,
+    estimated_hours FLOAT(53) NOT NULL,
+    completed_at DATE,
+    task_id BIGINT REFERENCES tasks (id)
+);
+
+CREATE TABLE IF NOT EXISTS subjects (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    subject_key VARCHAR(255),
+    name VARCHAR(255),
+    year INTEGER NOT NULL,
+    teacher VARCHAR(255),
+    absence_days INTEGER NOT NULL,
+    user_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS exams (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    type VARCHAR(255),
+    date DATE,
+    grade FLOAT(53) NOT NULL,
+    max_grade FLOAT(53) NOT NULL,
+    subject_id BIGINT REFERENCES subjects (id)
+);
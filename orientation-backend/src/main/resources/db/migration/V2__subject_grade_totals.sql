@@ -0,0 +1,9 @@
+-- Running exam sums on subjects, maintained by the exam endpoints
+ALTER TABLE subjects ADD COLUMN IF NOT EXISTS total_grade FLOAT(53) NOT NULL DEFAULT 0;
+ALTER TABLE subjects ADD COLUMN IF NOT EXISTS total_max_grade FLOAT(53) NOT NULL DEFAULT 0;
+ALTER TABLE subjects ADD COLUMN IF NOT EXISTS exam_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE subjects SET
+    total_grade = COALESCE((SELECT SUM(e.grade) FROM exams e WHERE e.subject_id = subjects.id), 0),
+    total_max_grade = COALESCE((SELECT SUM(e.max_grade) FROM exams e WHERE e.subject_id = subjects.id), 0),
+    exam_count = (SELECT COUNT(*) FROM exams e WHERE e.subject_id = subjects.id);
@@ -0,0 +1,5 @@
+-- Date-range lookups scoped by user for the calendar month view
+CREATE INDEX IF NOT EXISTS idx_tasks_user_due_date ON tasks (user_id, due_date);
+CREATE INDEX IF NOT EXISTS idx_subtasks_task_due_date ON subtasks (task_id, due_date);
+CREATE INDEX IF NOT EXISTS idx_subjects_user ON subjects (user_id);
+CREATE INDEX IF NOT EXISTS idx_exams_subject_date ON exams (subject_id, date);
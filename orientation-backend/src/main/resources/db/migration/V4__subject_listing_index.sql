@@ -0,0 +1,2 @@
+-- Keyset pages of a user's subjects, ordered by (year, name, id)
+CREATE INDEX IF NOT EXISTS idx_subjects_user_year_name ON subjects (user_id, year, name, id);
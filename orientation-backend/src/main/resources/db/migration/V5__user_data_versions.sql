@@ -0,0 +1,5 @@
+-- Per-user data version, bumped by every task and grade write; drives dashboard ETags
+CREATE TABLE IF NOT EXISTS user_data_versions (
+    user_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
@@ -0,0 +1,24 @@
+-- Entity ids move from identity columns to sequences that Hibernate draws in blocks
+-- (orientation.ids.allocation-size, 50), so inserts no longer need a round trip each
+-- and can go out as JDBC batches. Each sequence continues after the table's highest id.
+-- Every schema here has identity ids, whether created by V1 or by Hibernate before the baseline.
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('users_seq', MAX(id)) FROM users HAVING MAX(id) IS NOT NULL;
+
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('tasks_seq', MAX(id)) FROM tasks HAVING MAX(id) IS NOT NULL;
+
+ALTER TABLE subtasks ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS subtasks_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('subtasks_seq', MAX(id)) FROM subtasks HAVING MAX(id) IS NOT NULL;
+
+ALTER TABLE subjects ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS subjects_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('subjects_seq', MAX(id)) FROM subjects HAVING MAX(id) IS NOT NULL;
+
+ALTER TABLE exams ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS exams_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('exams_seq', MAX(id)) FROM exams HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,6 @@
+-- The rollup's ids move to a sequence as the entity tables' did in V6, so a rebuild's
+-- rows and an import's new days go out as JDBC batches too.
+
+ALTER TABLE study_hours_daily ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE IF NOT EXISTS study_hours_daily_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('study_hours_daily_seq', MAX(id)) FROM study_hours_daily HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,150 @@
+package com.orientation;
+
+import com.orientation.model.Exam;
+import com.orientation.model.StudyHoursDaily;
+import com.orientation.model.Subject;
+import com.orientation.model.User;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.UserRepository;
+import com.orientation.service.StudyHoursRollupService;
+import com.orientation.support.PostgresFunctions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A database built by ddl-auto before the migrations existed, with rows in
+ * it: Flyway baselines it at V1 and runs V1.1 to V7 over it, after which the
+ * migrated schema validates and new rows draw ids past the existing ones.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class FlywayBaselineUpgradeTest {
+
+    private static final long USER_ID = 72L;
+
+    private static final long SEEDED_USER_ID = 40L;
+
+    private static final long SEEDED_SUBJECT_ID = 75L;
+
+    private static final LocalDate COMPLETED = LocalDate.of(2025, 3, 14);
+
+    @TestConfiguration
+    static class UpgradeFromPreFlywaySchema {
+
+        // Runs before the EntityManagerFactory, which then validates the migrated schema
+        @Bean
+        FlywayMigrationStrategy upgradeFromPreFlywaySchema() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                try (Connection connection = dataSource.getConnection()) {
+                    PostgresFunctions.register(connection);
+                    ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-flyway-schema.sql"));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                seed(new JdbcTemplate(dataSource));
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private StudyHoursDailyRepository rollupRepository;
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void baselinedDatabaseTakesEveryLaterMigration() {
+        assertEquals(List.of("1", "1.1", "2", "3", "4", "5", "6", "7"), jdbcTemplate.queryForList(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL ORDER BY installed_rank",
+                String.class));
+        assertEquals("BASELINE", jdbcTemplate.queryForObject(
+                "SELECT type FROM flyway_schema_history WHERE version = '1'", String.class));
+
+        List<String> sequences = jdbcTemplate.queryForList(
+                "SELECT sequence_name FROM information_schema.sequences", String.class);
+        for (String table : List.of("users", "tasks", "subtasks", "subjects", "exams", "study_hours_daily"))
+            assertTrue(sequences.contains(table + "_seq"), table);
+
+        // V2 filled the running sums from the existing exams
+        Subject seeded = subjectRepository.findById(SEEDED_SUBJECT_ID).orElseThrow();
+        assertEquals(2, seeded.getExamCount());
+        assertEquals(25.0, seeded.getTotalGrade(), 1e-9);
+        assertEquals(40.0, seeded.getTotalMaxGrade(), 1e-9);
+
+        // The rollup table V1.1 created was filled from the existing tasks on startup
+        assertEquals(1, rollupRepository.findByUserId(USER_ID).size());
+        assertEquals(List.of(), rollupService.check());
+
+        User user = new User();
+        user.setEmail("after-baseline@example.com");
+        user.setPassword("hash");
+        user.setName("After");
+        assertTrue(userRepository.save(user).getId() > SEEDED_USER_ID);
+
+        Subject subject = new Subject();
+        subject.setName("Physics");
+        subject.setYear(1);
+        subject.setUserId(USER_ID);
+        Exam exam = new Exam();
+        exam.setName("Quiz");
+        exam.setGrade(12);
+        exam.setMaxGrade(20);
+        exam.setSubject(subject);
+        subject.getExams().add(exam);
+        subject.addToTotals(exam);
+        subject = subjectRepository.save(subject);
+        assertTrue(subject.getId() > SEEDED_SUBJECT_ID);
+
+        StudyHoursDaily day = rollupRepository.save(new StudyHoursDaily(null, USER_ID, COMPLETED.plusDays(1), 1, 1));
+        assertTrue(day.getId() > 0);
+    }
+
+    // Rows as the old application wrote them, one with an id above the identity's count
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (email, password, name) VALUES ('a@example.com', 'hash', 'Seeded')");
+        jdbc.update("INSERT INTO users (id, email, password, name) VALUES (?, 'b@example.com', 'hash', 'Seeded')",
+                SEEDED_USER_ID);
+
+        jdbc.update("INSERT INTO tasks (title, user_id, status, estimated_hours, actual_hours, completed_at) "
+                + "VALUES ('Seeded', ?, 'DONE', 2, 2, ?)", USER_ID, COMPLETED);
+
+        jdbc.update("INSERT INTO subjects (id, name, year, absence_days, user_id) VALUES (?, 'Seeded', 1, 0, ?)",
+                SEEDED_SUBJECT_ID, USER_ID);
+        jdbc.update("INSERT INTO exams (name, grade, max_grade, subject_id) VALUES ('Seeded', 10, 20, ?)",
+                SEEDED_SUBJECT_ID);
+        jdbc.update("INSERT INTO exams (name, grade, max_grade, subject_id) VALUES ('Seeded', 15, 20, ?)",
+                SEEDED_SUBJECT_ID);
+    }
+}
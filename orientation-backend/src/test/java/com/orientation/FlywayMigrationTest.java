@@ -0,0 +1,202 @@
+package com.orientation;
+
+import com.orientation.model.Exam;
+import com.orientation.model.StudyHoursDaily;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.User;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.repository.UserRepository;
+import com.orientation.support.PostgresFunctions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The real migrations on an H2 database in PostgreSQL mode, which the other
+ * tests leave to Hibernate: rows written while ids were identity columns, some
+ * with ids above the identity's own count, are in place before V6, and new
+ * rows saved through JPA afterwards draw ids past all of them.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class FlywayMigrationTest {
+
+    private static final long USER_ID = 71L;
+
+    // Highest id per table before V6
+    private static final Map<String, Long> SEEDED = new LinkedHashMap<>();
+
+    static {
+        SEEDED.put("users", 40L);
+        SEEDED.put("tasks", 130L);
+        SEEDED.put("subtasks", 260L);
+        SEEDED.put("subjects", 75L);
+        SEEDED.put("exams", 90L);
+        SEEDED.put("study_hours_daily", 12L);
+    }
+
+    @TestConfiguration
+    static class UpgradeFromV5 {
+
+        // Runs before the EntityManagerFactory, which then validates the migrated schema
+        @Bean
+        FlywayMigrationStrategy upgradeFromV5() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                try (Connection connection = dataSource.getConnection()) {
+                    PostgresFunctions.register(connection);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                Flyway.configure().configuration(flyway.getConfiguration()).target("5").load().migrate();
+                seed(new JdbcTemplate(dataSource));
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private StudyHoursDailyRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newRowsDrawIdsPastExistingOnes() {
+        User user = new User();
+        user.setEmail("after-v6@example.com");
+        user.setPassword("hash");
+        user.setName("After");
+        assertTrue(userRepository.save(user).getId() > SEEDED.get("users"));
+
+        // Enough subtasks to run through a first block of ids into the next
+        Task task = taskRepository.save(task(60));
+        assertTrue(task.getId() > SEEDED.get("tasks"));
+        for (SubTask subTask : task.getSubTasks())
+            assertTrue(subTask.getId() > SEEDED.get("subtasks"));
+
+        Subject subject = subjectRepository.save(subject(3));
+        assertTrue(subject.getId() > SEEDED.get("subjects"));
+        for (Exam exam : subject.getExams())
+            assertTrue(exam.getId() > SEEDED.get("exams"));
+
+        StudyHoursDaily day = rollupRepository.save(new StudyHoursDaily(null, USER_ID, LocalDate.now(), 2, 1));
+        assertTrue(day.getId() > SEEDED.get("study_hours_daily"));
+
+        // Three seeded rows per table, alongside what was just saved
+        Map<String, Integer> added = Map.of("users", 1, "tasks", 1, "subtasks", 60, "subjects", 1, "exams", 3,
+                "study_hours_daily", 1);
+        for (String table : SEEDED.keySet())
+            assertEquals(3 + added.get(table), jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class),
+                    table);
+        assertEquals("7", jdbcTemplate.queryForObject(
+                "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank DESC LIMIT 1",
+                String.class));
+    }
+
+    // Two rows numbered by the identity, then one well above it
+    private static void seed(JdbcTemplate jdbc) {
+        for (String email : List.of("a@example.com", "b@example.com"))
+            jdbc.update("INSERT INTO users (email, password, name) VALUES (?, 'hash', 'Seeded')", email);
+        jdbc.update("INSERT INTO users (id, email, password, name) VALUES (?, 'c@example.com', 'hash', 'Seeded')",
+                SEEDED.get("users"));
+
+        for (int i = 0; i < 2; i++)
+            jdbc.update("INSERT INTO tasks (title, user_id, estimated_hours, actual_hours) VALUES ('Seeded', ?, 1, 0)",
+                    USER_ID);
+        jdbc.update("INSERT INTO tasks (id, title, user_id, estimated_hours, actual_hours) VALUES (?, 'Seeded', ?, 1, 0)",
+                SEEDED.get("tasks"), USER_ID);
+
+        for (int i = 0; i < 2; i++)
+            jdbc.update("INSERT INTO subtasks (title, estimated_hours, completed_hours, task_id) VALUES ('Seeded', 1, 0, ?)",
+                    SEEDED.get("tasks"));
+        jdbc.update("INSERT INTO subtasks (id, title, estimated_hours, completed_hours, task_id) VALUES (?, 'Seeded', 1, 0, ?)",
+                SEEDED.get("subtasks"), SEEDED.get("tasks"));
+
+        for (int i = 0; i < 2; i++)
+            jdbc.update("INSERT INTO subjects (name, year, absence_days, user_id) VALUES ('Seeded', 1, 0, ?)", USER_ID);
+        jdbc.update("INSERT INTO subjects (id, name, year, absence_days, user_id) VALUES (?, 'Seeded', 1, 0, ?)",
+                SEEDED.get("subjects"), USER_ID);
+
+        for (int i = 0; i < 2; i++)
+            jdbc.update("INSERT INTO exams (name, grade, max_grade, subject_id) VALUES ('Seeded', 10, 20, ?)",
+                    SEEDED.get("subjects"));
+        jdbc.update("INSERT INTO exams (id, name, grade, max_grade, subject_id) VALUES (?, 'Seeded', 10, 20, ?)",
+                SEEDED.get("exams"), SEEDED.get("subjects"));
+
+        LocalDate today = LocalDate.now();
+        for (int i = 1; i <= 2; i++)
+            jdbc.update("INSERT INTO study_hours_daily (user_id, day, done_hours, completed_count) VALUES (?, ?, 1, 1)",
+                    USER_ID, today.minusDays(i));
+        jdbc.update("INSERT INTO study_hours_daily (id, user_id, day, done_hours, completed_count) VALUES (?, ?, ?, 1, 1)",
+                SEEDED.get("study_hours_daily"), USER_ID, today.minusDays(3));
+    }
+
+    private static Task task(int subTasks) {
+        Task task = new Task();
+        task.setTitle("Revision");
+        task.setUserId(USER_ID);
+        task.setEstimatedHours(subTasks);
+        for (int i = 0; i < subTasks; i++) {
+            SubTask subTask = new SubTask();
+            subTask.setTitle("Step " + i);
+            subTask.setStatus(TaskStatus.TODO);
+            subTask.setEstimatedHours(1);
+            subTask.setParentTask(task);
+            task.getSubTasks().add(subTask);
+        }
+        return task;
+    }
+
+    private static Subject subject(int exams) {
+        Subject subject = new Subject();
+        subject.setName("Mathematics");
+        subject.setYear(1);
+        subject.setUserId(USER_ID);
+        for (int i = 0; i < exams; i++) {
+            Exam exam = new Exam();
+            exam.setName("Quiz " + i);
+            exam.setDate(LocalDate.now());
+            exam.setGrade(14);
+            exam.setMaxGrade(20);
+            exam.setSubject(subject);
+            subject.getExams().add(exam);
+            subject.addToTotals(exam);
+        }
+        return subject;
+    }
+}
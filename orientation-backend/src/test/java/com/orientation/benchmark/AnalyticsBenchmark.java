@@ -0,0 +1,120 @@
+package com.orientation.benchmark;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.StudyHoursDaily;
+import com.orientation.model.Subject;
+import com.orientation.model.UpcomingTask;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.service.DashboardService;
+import com.orientation.service.StudyAnalyticsService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory aggregation behind the analytics and dashboard endpoints, over a
+ * synthetic user with {@code size} tasks and {@code size} exams: weekly history
+ * bucketing, summary and year-average grouping, upcoming-task sorting and the
+ * subject averages they read. No database; rows are built once per trial.
+ *
+ * <p>Throughput and allocation per operation:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="AnalyticsBenchmark -prof gc"}
+ * and read gc.alloc.rate.norm next to the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    private static final String[] SUBJECT_KEYS = {
+        "MATH", "PHYSICS", "CHEMISTRY", "BIOLOGY", "ENGLISH", "GEOGRAPHY", "HISTORY", "ARTS"
+    };
+
+    private static final TaskPriority[] PRIORITIES = { TaskPriority.HIGH, TaskPriority.MEDIUM, TaskPriority.LOW, null };
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int size;
+
+    private StudyAnalyticsService studyAnalyticsService;
+    private LocalDate today;
+    private List<StudyHoursDaily> days;
+    private List<Subject> subjects;
+    private List<UpcomingTask> upcoming;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        studyAnalyticsService = new StudyAnalyticsService(new OrientationProperties(), null);
+        today = LocalDate.now();
+        Random random = new Random(42);
+
+        // Done tasks over the last 90 days, rolled up per day the way study_hours_daily holds them
+        Map<LocalDate, StudyHoursDaily> rollup = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            LocalDate day = today.minusDays(random.nextInt(90));
+            StudyHoursDaily row = rollup.computeIfAbsent(day, d -> new StudyHoursDaily(null, 1L, d, 0, 0));
+            row.setDoneHours(row.getDoneHours() + random.nextInt(8) * 0.5);
+            row.setCompletedCount(row.getCompletedCount() + 1);
+        }
+        days = new ArrayList<>(rollup.values());
+
+        // About ten exams per subject, spread over three years
+        subjects = new ArrayList<>();
+        int subjectCount = Math.max(1, size / 10);
+        for (int i = 0; i < subjectCount; i++) {
+            Subject subject = new Subject();
+            subject.setSubjectKey(SUBJECT_KEYS[i % SUBJECT_KEYS.length]);
+            subject.setName(subject.getSubjectKey());
+            subject.setYear(1 + (i / SUBJECT_KEYS.length) % 3);
+            subjects.add(subject);
+        }
+        for (int i = 0; i < size; i++) {
+            Subject subject = subjects.get(random.nextInt(subjectCount));
+            subject.setTotalGrade(subject.getTotalGrade() + random.nextInt(21));
+            subject.setTotalMaxGrade(subject.getTotalMaxGrade() + 20);
+            subject.setExamCount(subject.getExamCount() + 1);
+        }
+
+        upcoming = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            upcoming.add(new UpcomingTask((long) i, "Task " + i, today.plusDays(random.nextInt(8)),
+                    PRIORITIES[random.nextInt(PRIORITIES.length)], TaskStatus.TODO, random.nextInt(8) * 0.5));
+        }
+    }
+
+    @Benchmark
+    public Object weeklyHistory() {
+        return studyAnalyticsService.hoursHistory(days, today);
+    }
+
+    @Benchmark
+    public Object summaryGrouping() {
+        return DashboardService.summary(subjects, 12.5, DashboardService.yearAverages(subjects));
+    }
+
+    @Benchmark
+    public Object yearAverages() {
+        return DashboardService.yearAverages(subjects);
+    }
+
+    @Benchmark
+    public Object upcomingSort() {
+        return DashboardService.byPriority(upcoming);
+    }
+
+    @Benchmark
+    public void subjectAverages(Blackhole blackhole) {
+        for (Subject subject : subjects)
+            blackhole.consume(subject.getAverage());
+    }
+}
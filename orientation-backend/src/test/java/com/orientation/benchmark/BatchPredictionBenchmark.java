@@ -0,0 +1,100 @@
+package com.orientation.benchmark;
+
+import com.orientation.config.OrientationConfig;
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.PredictionResult;
+import com.orientation.model.StudentInput;
+import com.orientation.service.ModelServerGuard;
+import com.orientation.service.OrientationService;
+import com.orientation.service.PredictionCache;
+import com.orientation.service.RemoteOrientationPredictor;
+import com.orientation.support.StubModelServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One class worth of students against a stub model server with a fixed
+ * per-request latency: the single-item loop pays one round trip per student,
+ * the batch path one per chunk with several chunks in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BatchPredictionBenchmark {
+
+    @Param({ "100", "500" })
+    public int students;
+
+    @Param({ "2" })
+    public long modelLatencyMillis;
+
+    private StubModelServer server;
+    private ExecutorService executor;
+    private CloseableHttpClient httpClient;
+    private OrientationService service;
+    private List<StudentInput> inputs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new StubModelServer(modelLatencyMillis);
+
+        OrientationProperties properties = new OrientationProperties();
+        properties.getModel().setUrl(server.url());
+        // Measure round trips, not cache hits
+        properties.getCache().setEnabled(false);
+        OrientationConfig config = new OrientationConfig();
+        httpClient = config.modelHttpClient(config.modelConnectionManager(properties), properties);
+        executor = Executors.newFixedThreadPool(properties.getBatch().getMaxInFlight());
+        service = new OrientationService(properties,
+                new RemoteOrientationPredictor(properties, config.modelRestTemplate(httpClient),
+                        new ModelServerGuard(properties)),
+                executor, new PredictionCache(properties), new SimpleMeterRegistry());
+
+        Random random = new Random(42);
+        inputs = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            StudentInput input = new StudentInput();
+            input.setMathScore(random.nextInt(101));
+            input.setPhysicsScore(random.nextInt(101));
+            input.setChemistryScore(random.nextInt(101));
+            input.setBiologyScore(random.nextInt(101));
+            input.setEnglishScore(random.nextInt(101));
+            input.setGeographyScore(random.nextInt(101));
+            input.setWeeklySelfStudyHours(random.nextInt(30));
+            input.setAbsenceDays(random.nextInt(15));
+            inputs.add(input);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        httpClient.close();
+        server.close();
+    }
+
+    @Benchmark
+    public List<String> singleItemLoop() {
+        List<String> results = new ArrayList<>(inputs.size());
+        for (StudentInput input : inputs) {
+            results.add(service.predictOrientation(input));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<PredictionResult> batch() {
+        return service.predictBatch(inputs);
+    }
+}
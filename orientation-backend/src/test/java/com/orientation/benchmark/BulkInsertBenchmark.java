@@ -0,0 +1,119 @@
+package com.orientation.benchmark;
+
+import com.orientation.OrientationBackendApplication;
+import com.orientation.config.RequestQueryCount;
+import com.orientation.model.SubTask;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One saveAll of {@code tasks} tasks with five subtasks each, through the
+ * cascade. allocationSize=1 with batchSize=0 pays a nextval and an insert per
+ * row, about what the identity columns cost; the defaults (50/50) take one
+ * nextval per 50 ids and send each table's rows in batches of 50. The
+ * statements and saves counters give the round trips per save.
+ *
+ * <p>The in-memory default has no network between the application and the
+ * database, so the times mostly show Hibernate's own work. For the round-trip
+ * cost, point it at a PostgreSQL, where the schema comes from the mappings:
+ * {@code -Djmh.args="BulkInsertBenchmark -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://localhost:5432/orientation_bench
+ * -Dspring.datasource.username=postgres -Dspring.datasource.driver-class-name=org.postgresql.Driver
+ * -Dspring.jpa.database=POSTGRESQL -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    private static final int SUBTASKS_PER_TASK = 5;
+
+    @Param({ "100" })
+    public int tasks;
+
+    @Param({ "1", "50" })
+    public int allocationSize;
+
+    @Param({ "0", "50" })
+    public int batchSize;
+
+    // Summed over each iteration; statements / saves is the round trips per save
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long saves;
+    }
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private JdbcTemplate jdbcTemplate;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrientationBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.open-in-view=false")
+                // As arguments: default properties would lose to application.properties
+                .run("--orientation.ids.allocation-size=" + allocationSize,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        taskRepository = context.getBean(TaskRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        today = LocalDate.now();
+    }
+
+    // Keeps the tables, and with them index depth, the same size from one iteration to the next
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM subtasks");
+        jdbcTemplate.update("DELETE FROM tasks");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Task> saveAll(RoundTrips roundTrips) {
+        List<Task> list = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            task.setEstimatedHours(SUBTASKS_PER_TASK);
+            task.setDueDate(today.plusDays(i % 30));
+            for (int j = 0; j < SUBTASKS_PER_TASK; j++) {
+                SubTask subTask = new SubTask();
+                subTask.setTitle("Step " + j);
+                subTask.setStatus(TaskStatus.TODO);
+                subTask.setEstimatedHours(1);
+                subTask.setParentTask(task);
+                task.getSubTasks().add(subTask);
+            }
+            list.add(task);
+        }
+        RequestQueryCount.start();
+        List<Task> saved = taskRepository.saveAll(list);
+        roundTrips.statements += RequestQueryCount.finish();
+        roundTrips.saves++;
+        return saved;
+    }
+}
@@ -0,0 +1,143 @@
+package com.orientation.benchmark;
+
+import com.orientation.OrientationBackendApplication;
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.CalendarEvent;
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.CalendarService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calendar month view as a student's history grows, with about 40 items in
+ * every month: the range queries (uncached and cached) should stay flat while
+ * the former load-everything-and-filter approach grows with history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class CalendarBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    private static final int ITEMS_PER_MONTH = 40;
+
+    @Param({ "100", "1000", "5000" })
+    public int historyItems;
+
+    private ConfigurableApplicationContext context;
+    private OrientationProperties properties;
+    private CalendarService calendarService;
+    private TaskRepository taskRepository;
+    private SubjectRepository subjectRepository;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrientationBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.open-in-view=false")
+                .run();
+        properties = context.getBean(OrientationProperties.class);
+        calendarService = context.getBean(CalendarService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        subjectRepository = context.getBean(SubjectRepository.class);
+        today = LocalDate.now();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CalendarEvent> rangeQueries() {
+        properties.getCalendar().setCacheEnabled(false);
+        return calendarService.events(USER_ID, today.getYear(), today.getMonthValue());
+    }
+
+    @Benchmark
+    public List<CalendarEvent> cached() {
+        properties.getCalendar().setCacheEnabled(true);
+        return calendarService.events(USER_ID, today.getYear(), today.getMonthValue());
+    }
+
+    // What the endpoint did before: every task and subject with children, filtered in Java
+    @Benchmark
+    public int loadEverything() {
+        LocalDate start = today.withDayOfMonth(1);
+        LocalDate end = start.plusMonths(1).minusDays(1);
+        int events = 0;
+        for (Task t : taskRepository.findWithSubTasksByUserId(USER_ID)) {
+            if (t.getDueDate() != null && !t.getDueDate().isBefore(start) && !t.getDueDate().isAfter(end))
+                events++;
+            for (SubTask st : t.getSubTasks()) {
+                if (st.getDueDate() != null && !st.getDueDate().isBefore(start) && !st.getDueDate().isAfter(end))
+                    events++;
+            }
+        }
+        for (Subject s : subjectRepository.findWithExamsByUserId(USER_ID)) {
+            for (Exam e : s.getExams()) {
+                if (e.getDate() != null && !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    events++;
+            }
+        }
+        return events;
+    }
+
+    // Half tasks, a quarter subtasks, a quarter exams, spread back over as many months as needed
+    private void seed() {
+        int months = Math.max(1, historyItems / ITEMS_PER_MONTH);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < historyItems / 2; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            task.setDueDate(today.minusMonths(i % months).withDayOfMonth(1 + i % 28));
+            if (i % 2 == 0) {
+                SubTask subTask = new SubTask();
+                subTask.setTitle("Step " + i);
+                subTask.setDueDate(task.getDueDate());
+                subTask.setParentTask(task);
+                task.getSubTasks().add(subTask);
+            }
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Subject subject = new Subject();
+            subject.setName("Subject " + i);
+            subject.setUserId(USER_ID);
+            subjects.add(subject);
+        }
+        for (int i = 0; i < historyItems / 4; i++) {
+            Subject subject = subjects.get(i % subjects.size());
+            Exam exam = new Exam();
+            exam.setName("Exam " + i);
+            exam.setDate(today.minusMonths(i % months).withDayOfMonth(1 + i % 28));
+            exam.setSubject(subject);
+            subject.getExams().add(exam);
+            subject.addToTotals(exam);
+        }
+        subjectRepository.saveAll(subjects);
+    }
+}
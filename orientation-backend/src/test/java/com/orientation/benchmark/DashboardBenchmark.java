@@ -0,0 +1,124 @@
+package com.orientation.benchmark;
+
+import com.orientation.OrientationBackendApplication;
+import com.orientation.model.Exam;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.CalendarService;
+import com.orientation.service.DashboardService;
+import com.orientation.service.StudyAnalyticsService;
+import com.orientation.service.StudyHoursRollupService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard page load: the calls the page used to make one after another
+ * against the composite /all computation, with the calendar cache off so both
+ * read the month from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class DashboardBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({ "100", "1000" })
+    public int tasks;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private CalendarService calendarService;
+    private StudyAnalyticsService studyAnalyticsService;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrientationBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.open-in-view=false", "orientation.calendar.cache-enabled=false")
+                .run();
+        dashboardService = context.getBean(DashboardService.class);
+        calendarService = context.getBean(CalendarService.class);
+        studyAnalyticsService = context.getBean(StudyAnalyticsService.class);
+        today = LocalDate.now();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // summary, upcoming, calendar, completed/week and hours/history, as the page requested them
+    @Benchmark
+    public void separateCalls(Blackhole blackhole) {
+        blackhole.consume(dashboardService.summary(USER_ID));
+        blackhole.consume(dashboardService.upcoming(USER_ID, today));
+        blackhole.consume(calendarService.events(USER_ID, today.getYear(), today.getMonthValue()));
+        blackhole.consume(studyAnalyticsService.recentCompletedCount(USER_ID, today));
+        blackhole.consume(studyAnalyticsService.hoursHistory(USER_ID, today));
+    }
+
+    @Benchmark
+    public Map<String, Object> composite() {
+        return dashboardService.all(USER_ID, new HashSet<>(DashboardService.SECTIONS), YearMonth.from(today), today);
+    }
+
+    private void seed() {
+        List<Task> list = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            task.setEstimatedHours(2);
+            task.setDueDate(today.plusDays(i % 40 - 20));
+            if (i % 3 == 0) {
+                task.setStatus(TaskStatus.DONE);
+                task.setCompletedAt(today.minusDays(i % 60));
+            }
+            list.add(task);
+        }
+        context.getBean(TaskRepository.class).saveAll(list);
+        context.getBean(StudyHoursRollupService.class).rebuild();
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, tasks / 20); i++) {
+            Subject subject = new Subject();
+            subject.setSubjectKey("MATH");
+            subject.setName("Subject " + i);
+            subject.setYear(1 + i % 3);
+            subject.setUserId(USER_ID);
+            for (int j = 0; j < 4; j++) {
+                Exam exam = new Exam();
+                exam.setName("Exam " + j);
+                exam.setDate(today.plusDays(j * 5 - 5));
+                exam.setGrade(10 + j);
+                exam.setMaxGrade(20);
+                exam.setSubject(subject);
+                subject.getExams().add(exam);
+                subject.addToTotals(exam);
+            }
+            subjects.add(subject);
+        }
+        context.getBean(SubjectRepository.class).saveAll(subjects);
+    }
+}
@@ -0,0 +1,65 @@
+package com.orientation.benchmark;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.service.PasswordHashService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A login burst: 8 request threads checking passwords at once, either hashing
+ * on the request thread as login used to or through PasswordHashService's
+ * pool of one thread per core. Throughput should match; the pool bounds how
+ * many cores the burst holds. Run with -bm sample for latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(1)
+public class LoginBenchmark {
+
+    @Param({ "10", "12" })
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+    private PasswordHashService pooled;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OrientationProperties properties = new OrientationProperties();
+        properties.getAuth().setBcryptStrength(strength);
+        properties.getAuth().setHashTimeout(Duration.ofMinutes(1));
+        encoder = new BCryptPasswordEncoder(strength);
+        int threads = Runtime.getRuntime().availableProcessors();
+        // Deep enough that the 8 benchmark threads are never rejected
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), new ThreadPoolExecutor.AbortPolicy());
+        pooled = new PasswordHashService(encoder, executor, properties, new SimpleMeterRegistry());
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public boolean requestThread() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    @Benchmark
+    public boolean hashPool() {
+        return pooled.verify("correct horse battery staple", hash).join().matches();
+    }
+}
@@ -0,0 +1,76 @@
+package com.orientation.benchmark;
+
+import com.orientation.config.OrientationConfig;
+import com.orientation.config.OrientationProperties;
+import com.orientation.service.LocalOrientationPredictor;
+import com.orientation.service.ModelServerGuard;
+import com.orientation.service.OrientationPredictor;
+import com.orientation.service.RemoteOrientationPredictor;
+import com.orientation.support.StubModelServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one prediction in local mode (fixture tree ensemble scored in
+ * process) against remote mode (pooled HTTP call to a zero-latency stub, so
+ * only the process boundary and JSON are measured).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PredictorBenchmark {
+
+    private StubModelServer server;
+    private CloseableHttpClient httpClient;
+    private OrientationPredictor remote;
+    private LocalOrientationPredictor local;
+    private List<double[]> row;
+    private double[] features;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new StubModelServer(0);
+
+        OrientationProperties properties = new OrientationProperties();
+        properties.getModel().setUrl(server.url());
+        properties.getPredictor().setModelPath("classpath:model/orientation-model.json");
+
+        OrientationConfig config = new OrientationConfig();
+        httpClient = config.modelHttpClient(config.modelConnectionManager(properties), properties);
+        remote = new RemoteOrientationPredictor(properties, config.modelRestTemplate(httpClient),
+                new ModelServerGuard(properties));
+        local = new LocalOrientationPredictor(properties, new DefaultResourceLoader());
+
+        features = new double[] { 72.5, 64.0, 55.5, 48.0, 81.0, 60.5, 12.0, 3.0 };
+        row = List.of(features);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        httpClient.close();
+        server.close();
+    }
+
+    @Benchmark
+    public OrientationPredictor.Predictions remote() {
+        return remote.predict(row);
+    }
+
+    @Benchmark
+    public OrientationPredictor.Predictions local() {
+        return local.predict(row);
+    }
+
+    // The evaluator alone, without the Predictions wrapper
+    @Benchmark
+    public int localEvaluatorOnly() {
+        return local.model().classify(features);
+    }
+}
@@ -0,0 +1,197 @@
+package com.orientation.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.CalendarEvent;
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.UpcomingExam;
+import com.orientation.model.UpcomingTask;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bytes allocated to build and serialize the upcoming and calendar responses,
+ * per-row HashMaps (as the endpoints did before) against record DTOs. Rows are
+ * in memory so only response building is measured; run with -prof gc and read
+ * gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ResponseAllocationBenchmark {
+
+    @Param({ "100", "1000" })
+    public int rows;
+
+    // Spring's defaults; the shared sink must stay open across writes
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private LocalDate today;
+    private List<Task> tasks;
+    private List<SubTask> subTasks;
+    private List<Exam> exams;
+    private List<UpcomingTask> upcomingTasks;
+    private List<UpcomingExam> upcomingExams;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        today = LocalDate.now();
+        tasks = new ArrayList<>();
+        subTasks = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Task task = new Task();
+            task.setId((long) i);
+            task.setTitle("Task " + i);
+            task.setDueDate(today.plusDays(i % 7));
+            task.setPriority(TaskPriority.values()[i % 3]);
+            task.setStatus(TaskStatus.TODO);
+            task.setEstimatedHours(2);
+            tasks.add(task);
+            SubTask subTask = new SubTask();
+            subTask.setTitle("Step " + i);
+            subTask.setDueDate(task.getDueDate());
+            subTask.setPriority(task.getPriority());
+            subTask.setStatus(TaskStatus.TODO);
+            subTask.setParentTask(task);
+            subTasks.add(subTask);
+        }
+        Subject subject = new Subject();
+        subject.setName("Mathematics");
+        exams = new ArrayList<>();
+        for (int i = 0; i < rows / 4; i++) {
+            Exam exam = new Exam();
+            exam.setName("Quiz " + i);
+            exam.setType("Quiz");
+            exam.setDate(today.plusDays(i % 7));
+            exam.setSubject(subject);
+            exams.add(exam);
+        }
+        // What the projection queries hand over instead of entities
+        upcomingTasks = tasks.stream().map(t -> new UpcomingTask(t.getId(), t.getTitle(), t.getDueDate(),
+                t.getPriority(), t.getStatus(), t.getEstimatedHours())).toList();
+        upcomingExams = exams.stream().map(e -> new UpcomingExam(e.getSubject().getName(), e.getName(),
+                e.getDate(), e.getType())).toList();
+    }
+
+    @Benchmark
+    public void upcomingMaps() throws IOException {
+        Map<String, Object> result = new HashMap<>();
+        result.put("tasks", tasks.stream()
+                .sorted((a, b) -> {
+                    int priorityA = priorityOrder(a.getPriority());
+                    int priorityB = priorityOrder(b.getPriority());
+                    if (priorityA != priorityB)
+                        return priorityA - priorityB;
+                    return a.getDueDate().compareTo(b.getDueDate());
+                })
+                .map(t -> {
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", t.getId());
+                    map.put("title", t.getTitle());
+                    map.put("dueDate", t.getDueDate());
+                    map.put("priority", t.getPriority());
+                    map.put("status", t.getStatus());
+                    map.put("estimatedHours", t.getEstimatedHours());
+                    return map;
+                })
+                .collect(Collectors.toList()));
+        result.put("exams", exams.stream()
+                .map(e -> {
+                    Map<String, Object> exam = new HashMap<>();
+                    exam.put("subjectName", e.getSubject().getName());
+                    exam.put("examName", e.getName());
+                    exam.put("date", e.getDate());
+                    exam.put("type", e.getType());
+                    return exam;
+                })
+                .sorted((a, b) -> ((LocalDate) a.get("date")).compareTo((LocalDate) b.get("date")))
+                .collect(Collectors.toList()));
+        mapper.writeValue(sink, result);
+    }
+
+    @Benchmark
+    public void upcomingRecords() throws IOException {
+        Map<String, Object> result = new HashMap<>();
+        result.put("tasks", upcomingTasks.stream()
+                .sorted(Comparator.comparingInt((UpcomingTask t) -> priorityOrder(t.priority()))
+                        .thenComparing(UpcomingTask::dueDate))
+                .toList());
+        result.put("exams", upcomingExams);
+        mapper.writeValue(sink, result);
+    }
+
+    @Benchmark
+    public void calendarMaps() throws IOException {
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (Task t : tasks) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "task");
+            event.put("date", t.getDueDate());
+            event.put("title", t.getTitle());
+            event.put("priority", t.getPriority());
+            event.put("status", t.getStatus());
+            event.put("taskId", t.getId());
+            events.add(event);
+        }
+        for (SubTask st : subTasks) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "subtask");
+            event.put("date", st.getDueDate());
+            event.put("title", "↳ " + st.getTitle());
+            event.put("priority", st.getPriority());
+            event.put("status", st.getStatus());
+            event.put("parentTaskId", st.getParentTask().getId());
+            events.add(event);
+        }
+        for (Exam e : exams) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "exam");
+            event.put("date", e.getDate());
+            event.put("title", e.getSubject().getName() + ": " + e.getName());
+            event.put("examType", e.getType());
+            events.add(event);
+        }
+        mapper.writeValue(sink, events);
+    }
+
+    @Benchmark
+    public void calendarRecords() throws IOException {
+        List<CalendarEvent> events = new ArrayList<>(tasks.size() + subTasks.size() + exams.size());
+        for (Task t : tasks) {
+            events.add(CalendarEvent.of(t));
+        }
+        for (SubTask st : subTasks) {
+            events.add(CalendarEvent.of(st));
+        }
+        for (Exam e : exams) {
+            events.add(CalendarEvent.of(e));
+        }
+        mapper.writeValue(sink, events);
+    }
+
+    private static int priorityOrder(TaskPriority priority) {
+        return priority == TaskPriority.HIGH ? 1 : priority == TaskPriority.MEDIUM ? 2 : 3;
+    }
+}
@@ -0,0 +1,79 @@
+package com.orientation.benchmark;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.config.SessionTokenFilter;
+import com.orientation.service.SessionTokenService;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of identifying the caller: the session token filter with a
+ * warm verified-token cache, the same filter recomputing the HMAC every time
+ * (cache size 0), and the X-User-Id parse it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class SessionTokenBenchmark {
+
+    private SessionTokenFilter cachedFilter;
+    private SessionTokenFilter uncachedFilter;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        OrientationProperties.Auth auth = new OrientationProperties.Auth();
+        auth.setTokenSecret("benchmark-secret");
+        SessionTokenService cached = new SessionTokenService(auth, Clock.systemUTC());
+        auth.setVerifiedCacheSize(0);
+        SessionTokenService uncached = new SessionTokenService(auth, Clock.systemUTC());
+
+        cachedFilter = new SessionTokenFilter(cached, Set.of());
+        uncachedFilter = new SessionTokenFilter(uncached, Set.of());
+        authorization = "Bearer " + cached.issue(42L);
+    }
+
+    @Benchmark
+    public Object filterCached() throws ServletException, IOException {
+        return filter(cachedFilter);
+    }
+
+    @Benchmark
+    public Object filterUncached() throws ServletException, IOException {
+        return filter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Long legacyHeader() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/summary");
+        request.addHeader("X-User-Id", "42");
+        String userId = request.getHeader("X-User-Id");
+        if (userId == null || userId.isEmpty())
+            return null;
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Object filter(SessionTokenFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/summary");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain.getRequest();
+    }
+}
@@ -0,0 +1,80 @@
+package com.orientation.controller;
+
+import com.orientation.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.function.Supplier;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The /api/admin maintenance endpoints and the actuator endpoints other than
+ * health answer only tokens of users listed in orientation.auth.admin-user-ids:
+ * 401 without a token, 403 for anyone else.
+ */
+@SpringBootTest(properties = "orientation.auth.admin-user-ids=" + AdminAccessTest.ADMIN_ID)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdminAccessTest {
+
+    static final long ADMIN_ID = 900L;
+
+    private static final long USER_ID = 901L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Test
+    void rollupMaintenanceNeedsAdmin() throws Exception {
+        assertAdminOnly(() -> post("/api/admin/rollup/rebuild"));
+        assertAdminOnly(() -> get("/api/admin/rollup/check"));
+    }
+
+    @Test
+    void cacheStatsNeedAdmin() throws Exception {
+        assertAdminOnly(() -> get("/api/admin/cache/stats"));
+    }
+
+    @Test
+    void datasourceStatsNeedAdmin() throws Exception {
+        assertAdminOnly(() -> get("/api/admin/datasource/stats"));
+    }
+
+    @Test
+    void modelStatsNeedAdmin() throws Exception {
+        assertAdminOnly(() -> get("/api/admin/model/stats"));
+        mockMvc.perform(get("/api/orientation/stats")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void actuatorNeedsAdminExceptHealth() throws Exception {
+        assertAdminOnly(() -> get("/actuator/metrics"));
+        assertAdminOnly(() -> get("/actuator/info"));
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    // A fresh builder per call: headers added to one builder accumulate
+    private void assertAdminOnly(Supplier<MockHttpServletRequestBuilder> request) throws Exception {
+        mockMvc.perform(request.get()).andExpect(status().isUnauthorized());
+        mockMvc.perform(request.get().header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(request.get().header(HttpHeaders.AUTHORIZATION, bearer(ADMIN_ID)))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
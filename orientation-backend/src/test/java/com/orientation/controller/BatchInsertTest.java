@@ -0,0 +1,104 @@
+package com.orientation.controller;
+
+import com.orientation.config.RequestQueryCount;
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ids come from sequence blocks, so a parent and its cascaded children go out
+ * as one JDBC batch per table instead of one insert per row. Its own context,
+ * hence its own database, so the sequences start fresh and the counts are exact.
+ */
+@SpringBootTest(properties = {
+        "orientation.ids.allocation-size=50",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50"
+})
+@ActiveProfiles("test")
+class BatchInsertTest {
+
+    private static final long USER_ID = 91L;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cascadedInsertsAreBatchedPerTable() {
+        // A fresh sequence's first value is a block of one: 2 nextval, then one insert per table
+        assertEquals(4, statements(() -> taskRepository.save(task(1))));
+        // Full blocks from here on: 2 nextval, 1 task and 20 subtasks in 2 batches
+        assertEquals(4, statements(() -> taskRepository.save(task(20))));
+        // Ids from the blocks already held
+        assertEquals(2, statements(() -> taskRepository.save(task(20))));
+        // The subtask block runs out once, and 60 subtasks take two batches of up to 50
+        assertEquals(4, statements(() -> taskRepository.save(task(60))));
+
+        // Exams 2..10 need the second block at once: 3 nextval, 2 inserts
+        assertEquals(5, statements(() -> subjectRepository.save(subject(10))));
+        assertEquals(3, statements(() -> subjectRepository.save(subject(30))));
+
+        assertEquals(4, taskRepository.count());
+        assertEquals(101, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM subtasks", Integer.class));
+        assertEquals(40, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM exams", Integer.class));
+    }
+
+    private static int statements(Runnable work) {
+        RequestQueryCount.start();
+        work.run();
+        return RequestQueryCount.finish();
+    }
+
+    private static Task task(int subTasks) {
+        Task task = new Task();
+        task.setTitle("Revision");
+        task.setUserId(USER_ID);
+        task.setEstimatedHours(subTasks);
+        for (int i = 0; i < subTasks; i++) {
+            SubTask subTask = new SubTask();
+            subTask.setTitle("Step " + i);
+            subTask.setStatus(TaskStatus.TODO);
+            subTask.setEstimatedHours(1);
+            subTask.setParentTask(task);
+            task.getSubTasks().add(subTask);
+        }
+        return task;
+    }
+
+    private static Subject subject(int exams) {
+        Subject subject = new Subject();
+        subject.setSubjectKey("MATH");
+        subject.setName("Mathematics");
+        subject.setYear(1);
+        subject.setUserId(USER_ID);
+        for (int i = 0; i < exams; i++) {
+            Exam exam = new Exam();
+            exam.setName("Quiz " + i);
+            exam.setDate(LocalDate.now());
+            exam.setGrade(14);
+            exam.setMaxGrade(20);
+            exam.setSubject(subject);
+            subject.getExams().add(exam);
+            subject.addToTotals(exam);
+        }
+        return subject;
+    }
+}
@@ -0,0 +1,124 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The month view is served from cache until a task, subtask or exam of that
+ * user changes.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CalendarCacheTest {
+
+    private static final long USER_ID = 21L;
+
+    private static final String MARCH = "/api/dashboard/calendar?year=2024&month=3";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        subjectRepository.deleteAll();
+    }
+
+    @Test
+    void writesInvalidateCachedMonth() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long taskId = send(post("/api/tasks"), Map.of("title", "Essay", "dueDate", "2024-03-10")).get("id").asLong();
+        send(post("/api/tasks"), Map.of("title", "April task", "dueDate", "2024-04-02"));
+        assertEquals(List.of("Essay"), titles());
+
+        statistics.clear();
+        assertEquals(List.of("Essay"), titles());
+        assertEquals(0, statistics.getPrepareStatementCount(), "second read should come from cache");
+
+        send(post("/api/tasks/" + taskId + "/subtasks"), Map.of("title", "Outline", "dueDate", "2024-03-05"));
+        assertEquals(List.of("Essay", "↳ Outline"), titles());
+
+        long subjectId = send(post("/api/grades/subjects"), Map.of("name", "Physics", "year", 1)).get("id").asLong();
+        send(post("/api/grades/subjects/" + subjectId + "/exams"), Map.of("name", "Midterm", "date", "2024-03-20"));
+        assertEquals(List.of("Essay", "↳ Outline", "Physics: Midterm"), titles());
+
+        long subId = taskRepository.findWithSubTasksByUserId(USER_ID).stream()
+                .filter(t -> t.getId() == taskId)
+                .findFirst().orElseThrow()
+                .getSubTasks().get(0).getId();
+        send(patch("/api/tasks/" + taskId + "/subtasks/" + subId), Map.of("status", "DONE"));
+        JsonNode events = mapper.readTree(march());
+        assertEquals("DONE", events.get(1).get("status").asText());
+
+        // Another user's month is unaffected
+        assertEquals(0, mapper.readTree(mockMvc.perform(get(MARCH).header(HttpHeaders.AUTHORIZATION, bearer(99)))
+                .andReturn().getResponse().getContentAsString()).size());
+    }
+
+    private List<String> titles() throws Exception {
+        List<String> titles = new ArrayList<>();
+        mapper.readTree(march()).forEach(event -> titles.add(event.get("title").asText()));
+        return titles;
+    }
+
+    private String march() throws Exception {
+        return mockMvc.perform(get(MARCH).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        String response = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer(USER_ID))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,148 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.config.OrientationProperties;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.repository.UserDataVersionRepository;
+import com.orientation.service.DataVersionService;
+import com.orientation.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read endpoints answer If-None-Match with 304 and no statements until one of
+ * the user's tasks or grades changes. Versions come from user_data_versions, so
+ * another instance agrees on them and sees this one's writes after its ttl.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    private static final long USER_ID = 61L;
+
+    private static final List<String> PATHS = List.of(
+            "/api/dashboard/summary",
+            "/api/dashboard/all",
+            "/api/tasks/analytics/hours/history",
+            "/api/grades/subjects");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private UserDataVersionRepository versionRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        subjectRepository.deleteAll();
+    }
+
+    @Test
+    void unchangedDataAnswersNotModifiedWithoutQueries() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        write("/api/tasks", Map.of("title", "Essay", "estimatedHours", 2));
+
+        for (String path : PATHS) {
+            MvcResult first = fetch(path, USER_ID, null, 200);
+            String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, path);
+            // Revalidated on every use rather than the no-store default
+            assertEquals("private, no-cache", first.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+
+            statistics.clear();
+            fetch(path, USER_ID, etag, 304);
+            assertEquals(0, statistics.getPrepareStatementCount(), path + " revalidation should not query");
+        }
+
+        String before = fetch("/api/dashboard/summary", USER_ID, null, 200).getResponse().getHeader(HttpHeaders.ETAG);
+        String otherUser = fetch("/api/dashboard/summary", USER_ID + 1, null, 200).getResponse().getHeader(HttpHeaders.ETAG);
+
+        write("/api/grades/subjects", Map.of("name", "Physics", "year", 1));
+        MvcResult changed = fetch("/api/dashboard/summary", USER_ID, before, 200);
+        assertNotEquals(before, changed.getResponse().getHeader(HttpHeaders.ETAG));
+        fetch("/api/dashboard/summary", USER_ID, changed.getResponse().getHeader(HttpHeaders.ETAG), 304);
+
+        // Another user's writes leave this one's tag alone, and tags are never shared between users
+        fetch("/api/dashboard/summary", USER_ID + 1, otherUser, 304);
+        fetch("/api/dashboard/summary", USER_ID + 1, changed.getResponse().getHeader(HttpHeaders.ETAG), 200);
+    }
+
+    @Test
+    void otherInstancesReadThePersistedVersion() throws Exception {
+        write("/api/tasks", Map.of("title", "Essay", "estimatedHours", 2));
+        OrientationProperties properties = new OrientationProperties();
+        properties.getDataVersion().setTtl(Duration.ofSeconds(2));
+        // A second instance, or this one after a restart, starts from the table rather than zero
+        DataVersionService other = new DataVersionService(versionRepository, properties);
+        long version = dataVersionService.current(USER_ID);
+        assertEquals(version, other.current(USER_ID));
+
+        // The other instance holds its copy until the ttl, then takes up this one's write
+        write("/api/tasks", Map.of("title", "Reading", "estimatedHours", 1));
+        assertEquals(version + 1, dataVersionService.current(USER_ID));
+        assertEquals(version, other.current(USER_ID));
+        Thread.sleep(2_100);
+        assertEquals(version + 1, other.current(USER_ID));
+    }
+
+    private MvcResult fetch(String path, long userId, String ifNoneMatch, int expectedStatus) throws Exception {
+        var request = get(path).header(HttpHeaders.AUTHORIZATION, bearer(userId));
+        if (ifNoneMatch != null)
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return mockMvc.perform(request).andExpect(status().is(expectedStatus)).andReturn();
+    }
+
+    private void write(String path, Object body) throws Exception {
+        mockMvc.perform(post(path).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,189 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Exam;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.SessionTokenService;
+import com.orientation.service.StudyHoursRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/dashboard/all returns the same sections as the separate endpoints the
+ * dashboard page calls, with fewer statements in total.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "orientation.calendar.cache-enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardAllTest {
+
+    private static final long USER_ID = 51L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        subjectRepository.deleteAll();
+        rollupService.rebuild();
+    }
+
+    @Test
+    void compositeMatchesSeparateCallsWithFewerStatements() throws Exception {
+        seed();
+        LocalDate today = LocalDate.now();
+        String month = "year=" + today.getYear() + "&month=" + today.getMonthValue();
+
+        Map<String, String> separate = new LinkedHashMap<>();
+        separate.put("summary", "/api/dashboard/summary");
+        separate.put("upcoming", "/api/dashboard/upcoming");
+        separate.put("calendar", "/api/dashboard/calendar?" + month);
+        separate.put("hours", "/api/tasks/analytics/hours");
+        separate.put("weekHours", "/api/tasks/analytics/hours/week");
+        separate.put("weekCompleted", "/api/tasks/analytics/completed/week");
+        separate.put("history", "/api/tasks/analytics/hours/history");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<String, JsonNode> expected = new LinkedHashMap<>();
+        for (Map.Entry<String, String> call : separate.entrySet()) {
+            expected.put(call.getKey(), read(call.getValue()));
+        }
+        long separateStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        JsonNode all = read("/api/dashboard/all?" + month);
+        long compositeStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(List.copyOf(separate.keySet()), fieldNames(all));
+        for (String section : separate.keySet()) {
+            if (section.equals("summary")) {
+                // Year averages are computed in memory rather than by SQL AVG; allow for rounding
+                JsonNode expectedAverages = expected.get(section).get("yearAverages");
+                JsonNode actualAverages = all.get(section).get("yearAverages");
+                assertEquals(fieldNames(expectedAverages), fieldNames(actualAverages));
+                expectedAverages.properties().forEach(e -> assertEquals(e.getValue().asDouble(),
+                        actualAverages.get(e.getKey()).asDouble(), 1e-9));
+                assertEquals(expected.get(section).get("weeklyHours"), all.get(section).get("weeklyHours"));
+                assertEquals(expected.get(section).get("subjectComparison"), all.get(section).get("subjectComparison"));
+            } else {
+                assertEquals(expected.get(section), all.get(section), section);
+            }
+        }
+        assertTrue(compositeStatements < separateStatements,
+                compositeStatements + " statements for /all, " + separateStatements + " for the separate calls");
+
+        JsonNode some = read("/api/dashboard/all?sections=upcoming,history");
+        assertEquals(List.of("upcoming", "history"), fieldNames(some));
+
+        mockMvc.perform(get("/api/dashboard/all?sections=nope").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void seed() {
+        Random random = new Random(13);
+        LocalDate today = LocalDate.now();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            task.setEstimatedHours(1 + random.nextInt(4));
+            task.setDueDate(today.plusDays(random.nextInt(20) - 5));
+            task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+            if (random.nextInt(3) == 0) {
+                task.setStatus(TaskStatus.DONE);
+                task.setCompletedAt(today.minusDays(random.nextInt(60)));
+            }
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+        rollupService.rebuild();
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Subject subject = new Subject();
+            subject.setSubjectKey(i % 2 == 0 ? "MATH" : "PHYS");
+            subject.setName("Subject " + i);
+            subject.setYear(1 + i % 3);
+            subject.setUserId(USER_ID);
+            for (int j = 0; j < 3; j++) {
+                Exam exam = new Exam();
+                exam.setName("Exam " + j);
+                exam.setDate(today.plusDays(random.nextInt(14) - 3));
+                exam.setGrade(random.nextInt(21));
+                exam.setMaxGrade(20);
+                exam.setSubject(subject);
+                subject.getExams().add(exam);
+                subject.addToTotals(exam);
+            }
+            subjects.add(subject);
+        }
+        subjectRepository.saveAll(subjects);
+    }
+
+    private JsonNode read(String path) throws Exception {
+        return mapper.readTree(mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,163 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Exam;
+import com.orientation.model.Subject;
+import com.orientation.repository.ExamRepository;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Subject and exam reads are served from the second-level and query caches
+ * until a write through GradeController changes what they hold; after each
+ * write the next read sees the new data.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EntityCacheTest {
+
+    private static final long USER_ID = 71L;
+
+    private static final String ML_DATA = "/api/grades/analytics/year/1/ml-data";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subjectRepository.deleteAll();
+    }
+
+    @Test
+    void gradeWritesInvalidateCachedRegions() throws Exception {
+        long subjectId = send(post("/api/grades/subjects"),
+                Map.of("subjectKey", "MATH", "name", "Mathematics", "year", 1)).get("id").asLong();
+        send(post("/api/grades/subjects/" + subjectId + "/exams"), exam(10, 20));
+        JsonNode subject = send(post("/api/grades/subjects/" + subjectId + "/exams"), exam(20, 20));
+        long firstExamId = subject.get("exams").get(0).get("id").asLong();
+
+        // Repeat reads come from the query cache and the subject region
+        assertEquals(75.0, average(), 1e-9);
+        statistics.clear();
+        assertEquals(75.0, average(), 1e-9);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        // An exam update moves the subject's sums: the cached query and subject entry must not survive it
+        send(put("/api/grades/subjects/" + subjectId + "/exams/" + firstExamId), exam(16, 20));
+        assertEquals(90.0, average(), 1e-9);
+
+        // The in-place sums update drops the cached subjects and their exam lists; the subject is cached
+        // again with the new sums by the read above, and its exam list is read once, with the new grade
+        statistics.clear();
+        Subject cached = inTransaction(() -> {
+            Subject read = subjectRepository.findById(subjectId).orElseThrow();
+            read.getExams().size();
+            return read;
+        });
+        assertEquals(36.0, cached.getTotalGrade(), 1e-9);
+        assertEquals(List.of(16.0, 20.0), cached.getExams().stream().map(Exam::getGrade).sorted().toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getCacheRegionStatistics("subjects").getHitCount());
+        assertEquals(1, statistics.getCacheRegionStatistics("subject-exams").getMissCount());
+
+        // Removing an exam changes the subject's exam list, so the cached list goes with it
+        send(delete("/api/grades/subjects/" + subjectId + "/exams/" + firstExamId), null);
+        int remaining = inTransaction(() -> subjectRepository.findById(subjectId).orElseThrow().getExams().size());
+        assertEquals(1, remaining);
+        assertEquals(100.0, average(), 1e-9);
+        // A removed entity leaves a lock entry in its region that no read can use
+        assertTrue(examRepository.findById(firstExamId).isEmpty());
+
+        mockMvc.perform(delete("/api/grades/subjects/" + subjectId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isOk());
+        assertTrue(subjectRepository.findById(subjectId).isEmpty());
+        assertTrue(mapper.readTree(mockMvc.perform(get(ML_DATA).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andReturn().getResponse().getContentAsString()).get("subjectAverages").isEmpty());
+    }
+
+    private double average() throws Exception {
+        String body = mockMvc.perform(get(ML_DATA).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(body).get("subjectAverages").get("MATH").asDouble();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private static Map<String, Object> exam(double grade, double maxGrade) {
+        return Map.of("name", "Quiz", "type", "Quiz", "grade", grade, "maxGrade", maxGrade);
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        request.header(HttpHeaders.AUTHORIZATION, bearer(USER_ID));
+        if (body != null)
+            request.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(body));
+        String response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
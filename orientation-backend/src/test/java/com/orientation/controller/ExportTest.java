@@ -0,0 +1,154 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.orientation.load.SyntheticDataGenerator;
+import com.orientation.model.ImportReport;
+import com.orientation.service.ImportService;
+import com.orientation.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GET /api/export over a real connection, since MockMvc would buffer the
+ * whole body: the export reads back through the import, gzip only changes the
+ * encoding, and the heap stays put while a large history streams out.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ExportTest {
+
+    private static final long USER_ID = 31L;
+
+    private static final long COPY_USER_ID = 32L;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void exportReadsBackThroughImport() throws Exception {
+        String source = String.join("\n",
+                "{\"record\":\"task\",\"title\":\"Essay\",\"status\":\"DONE\",\"estimatedHours\":3,\"createdAt\":\"2025-02-20\",\"completedAt\":\"2025-03-02\"}",
+                "{\"record\":\"subtask\",\"title\":\"Outline\",\"status\":\"DONE\",\"estimatedHours\":1,\"completedAt\":\"2025-03-01\"}",
+                "{\"record\":\"subtask\",\"title\":\"Write\",\"description\":\"Two pages\",\"estimatedHours\":2}",
+                "{\"record\":\"task\",\"title\":\"Reading\",\"priority\":\"HIGH\",\"dueDate\":\"2025-04-01\",\"createdAt\":\"2025-03-15\"}",
+                "{\"record\":\"subject\",\"name\":\"Mathematics\",\"subjectKey\":\"MATH\",\"year\":2,\"teacher\":\"Ms. Row\"}",
+                "{\"record\":\"exam\",\"name\":\"Quiz 1\",\"type\":\"Quiz\",\"grade\":12,\"maxGrade\":20,\"date\":\"2025-02-10\"}",
+                // Bonus marks and an ungraded mock, both of which the exam endpoints accept
+                "{\"record\":\"exam\",\"name\":\"Quiz 2\",\"type\":\"Quiz\",\"grade\":22,\"maxGrade\":20,\"date\":\"2025-02-17\"}",
+                "{\"record\":\"exam\",\"name\":\"Mock\",\"grade\":0,\"maxGrade\":0,\"date\":\"2025-02-24\"}",
+                "{\"record\":\"subject\",\"name\":\"Physics\",\"year\":1}");
+        assertEquals(9, importService.importNdjson(USER_ID, new StringReader(source)).imported());
+
+        String exported = export(USER_ID, false);
+        assertEquals(9, exported.lines().count());
+        assertEquals("2025-02-20", mapper.readTree(exported.lines().findFirst().orElseThrow())
+                .get("createdAt").asText());
+        assertEquals(exported, export(USER_ID, true));
+
+        ImportReport copy = importService.importNdjson(COPY_USER_ID, new StringReader(exported));
+        assertEquals(9, copy.imported());
+        assertEquals(0, copy.rejected());
+        assertEquals(withoutIds(exported), withoutIds(export(COPY_USER_ID, false)));
+    }
+
+    @Test
+    void heapStaysFlatWhileLargeHistoryStreams() throws Exception {
+        SyntheticDataGenerator.Settings settings = new SyntheticDataGenerator.Settings();
+        settings.users = 1;
+        settings.tasksPerUser = new SyntheticDataGenerator.Range(20_000, 20_000);
+        settings.subtasksPerTask = new SyntheticDataGenerator.Range(4, 4);
+        settings.subjectsPerUser = new SyntheticDataGenerator.Range(50, 50);
+        settings.examsPerSubject = new SyntheticDataGenerator.Range(20, 20);
+        settings.emailPrefix = "export";
+        long userId = new SyntheticDataGenerator(dataSource, settings, "unused").generate().get(0).id();
+        long expectedLines = 20_000 + 80_000 + 50 + 1_000;
+
+        // Retained heap after a full collection, sampled as the client reads through the body
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<Long> retained = new ArrayList<>();
+        long lines = 0;
+        try (BufferedReader body = new BufferedReader(new InputStreamReader(
+                send(userId, false).body(), StandardCharsets.UTF_8))) {
+            while (body.readLine() != null) {
+                lines++;
+                if (lines % (expectedLines / 5) == 0) {
+                    memory.gc();
+                    retained.add(memory.getHeapMemoryUsage().getUsed());
+                }
+            }
+        }
+        assertEquals(expectedLines, lines);
+
+        // Holding what was already written would add several MB per fifth of the history
+        long growth = retained.get(retained.size() - 1) - retained.get(0);
+        assertTrue(growth < 8L * 1024 * 1024, "retained heap grew by " + growth / 1024
+                + " KB while streaming; MB per fifth: " + retained.stream().map(bytes -> bytes / (1024 * 1024)).toList());
+    }
+
+    private String export(long userId, boolean gzip) throws Exception {
+        HttpResponse<InputStream> response = send(userId, gzip);
+        assertEquals(gzip ? "gzip" : null, response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        try (InputStream body = gzip ? new GZIPInputStream(response.body()) : response.body()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private HttpResponse<InputStream> send(long userId, boolean gzip) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/export"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + sessionTokenService.issue(userId));
+        if (gzip)
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    // Ids differ between the two users; the order of records does not
+    private List<String> withoutIds(String ndjson) throws Exception {
+        List<String> records = new ArrayList<>();
+        for (String line : ndjson.lines().toList()) {
+            ObjectNode record = (ObjectNode) mapper.readTree(line);
+            record.remove("id");
+            records.add(record.toString());
+        }
+        return records;
+    }
+}
@@ -0,0 +1,151 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Exam;
+import com.orientation.model.Subject;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.service.SessionTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exam writes through the API keep the subject's running sums equal to the
+ * sums over its exams, and year averages match the per-exam computation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GradeTotalsTest {
+
+    private static final long USER_ID = 11L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @AfterEach
+    void tearDown() {
+        subjectRepository.deleteAll();
+    }
+
+    @Test
+    void examWritesKeepRunningSumsInStep() throws Exception {
+        Random random = new Random(3);
+        List<Long> subjectIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Map<String, Object> subject = Map.of("subjectKey", "MATH", "name", "Subject " + i, "year", 1 + i % 2);
+            subjectIds.add(send(post("/api/grades/subjects"), subject).get("id").asLong());
+        }
+
+        for (int step = 0; step < 120; step++) {
+            Long subjectId = subjectIds.get(random.nextInt(subjectIds.size()));
+            Map<String, Object> exam = Map.of("name", "Exam " + step,
+                    "grade", random.nextInt(21), "maxGrade", random.nextInt(3) == 0 ? 0 : 20);
+            JsonNode exams = send(post("/api/grades/subjects/" + subjectId + "/exams"), exam).get("exams");
+            long examId = exams.get(random.nextInt(exams.size())).get("id").asLong();
+            if (random.nextBoolean()) {
+                send(put("/api/grades/subjects/" + subjectId + "/exams/" + examId),
+                        Map.of("name", "Edited", "grade", random.nextInt(21), "maxGrade", 20));
+            } else if (random.nextInt(3) == 0) {
+                send(delete("/api/grades/subjects/" + subjectId + "/exams/" + examId), Map.of());
+            }
+        }
+
+        Map<Integer, List<Double>> averagesByYear = new HashMap<>();
+        for (Subject subject : subjectRepository.findWithExamsByUserId(USER_ID)) {
+            double grade = subject.getExams().stream().mapToDouble(Exam::getGrade).sum();
+            double max = subject.getExams().stream().mapToDouble(Exam::getMaxGrade).sum();
+            assertEquals(subject.getExams().size(), subject.getExamCount());
+            assertEquals(grade, subject.getTotalGrade(), 1e-9);
+            assertEquals(max, subject.getTotalMaxGrade(), 1e-9);
+            if (!subject.getExams().isEmpty() && max != 0)
+                averagesByYear.computeIfAbsent(subject.getYear(), y -> new ArrayList<>()).add(grade / max * 100);
+        }
+
+        JsonNode yearAverages = mapper.readTree(mockMvc.perform(get("/api/grades/analytics/year-averages")
+                .header(HttpHeaders.AUTHORIZATION, bearer(USER_ID))).andReturn().getResponse().getContentAsString());
+        assertEquals(averagesByYear.size(), yearAverages.size());
+        averagesByYear.forEach((year, averages) -> assertEquals(
+                averages.stream().mapToDouble(Double::doubleValue).average().orElseThrow(),
+                yearAverages.get(String.valueOf(year)).asDouble(), 1e-9));
+    }
+
+    @Test
+    void concurrentExamWritesOnOneSubjectAllCount() throws Exception {
+        int writers = 8;
+        Map<String, Object> body = Map.of("subjectKey", "MATH", "name", "Contested", "year", 1);
+        long subjectId = send(post("/api/grades/subjects"), body).get("id").asLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<JsonNode>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                Map<String, Object> exam = Map.of("name", "Race " + i, "grade", 1 + i, "maxGrade", 20);
+                Callable<JsonNode> write = () -> {
+                    start.await();
+                    return send(post("/api/grades/subjects/" + subjectId + "/exams"), exam);
+                };
+                results.add(executor.submit(write));
+            }
+            start.countDown();
+            for (Future<JsonNode> result : results)
+                result.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        Subject subject = subjectRepository.findWithExamsByUserId(USER_ID).get(0);
+        assertEquals(writers, subject.getExams().size());
+        assertEquals(writers, subject.getExamCount());
+        assertEquals(writers * (writers + 1) / 2.0, subject.getTotalGrade(), 1e-9);
+        assertEquals(writers * 20.0, subject.getTotalMaxGrade(), 1e-9);
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        String response = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer(USER_ID))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return response.isEmpty() ? null : mapper.readTree(response);
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,206 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Subject;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.SessionTokenService;
+import com.orientation.service.StudyHoursRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CSV and NDJSON imports: bad rows are reported by line and skipped, the rest
+ * land as if posted one by one, with the rollup and subject totals kept. A
+ * small chunk size makes even these files span several transactions.
+ */
+@SpringBootTest(properties = "orientation.bulk-import.chunk-size=4")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImportTest {
+
+    private static final long USER_ID = 23L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private StudyHoursDailyRepository rollupRepository;
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        subjectRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void csvRowsAreValidatedOneByOne() throws Exception {
+        String csv = """
+                record,title,description,status,estimatedHours,completedHours,completedAt
+                task,Essay,"Draft, then ""polish""
+                over two days",DONE,2,,2025-03-02
+                subtask,Outline,,DONE,3,3,2025-03-01
+                subtask,Write,,TODO,1,,
+                task,,,TODO,1,,
+                subtask,Orphan,,TODO,1,,
+                task,Lab report,,SOMETIMES,1,,
+                task,Reading,,TODO,-1,,
+                task,Revision,,IN_PROGRESS,4,,
+                task,Too,few
+                subtask,Flashcards,,DONE,2,2,2025-03-04
+                """;
+        JsonNode report = importBody("text/csv", csv);
+
+        assertEquals(4, report.get("imported").asLong());
+        assertEquals(6, report.get("rejected").asLong());
+        assertFalse(report.get("errorsTruncated").asBoolean());
+        assertEquals(Map.of(
+                6L, "title is required",
+                7L, "its task on line 6 was rejected",
+                8L, "status must be one of [TODO, IN_PROGRESS, DONE]",
+                9L, "estimatedHours must be zero or more",
+                11L, "expected 7 fields, found 3",
+                12L, "the row on line 11 above it was rejected"), errors(report));
+
+        // The quoted description kept its comma, quotes and line break; the estimate grew to its subtasks
+        Map<String, Object> essay = jdbcTemplate.queryForMap(
+                "SELECT description, estimated_hours FROM tasks WHERE title = 'Essay'");
+        assertEquals("Draft, then \"polish\"\nover two days", essay.get("DESCRIPTION"));
+        assertEquals(4.0, ((Number) essay.get("ESTIMATED_HOURS")).doubleValue());
+        // Line 11 might have been a task, so Flashcards is not guessed onto Revision
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM subtasks", Integer.class));
+        assertEquals(List.of(), rollupService.check());
+    }
+
+    @Test
+    void ndjsonSubjectsAndExamsKeepTotals() throws Exception {
+        Subject existing = new Subject();
+        existing.setName("Physics");
+        existing.setYear(1);
+        existing.setUserId(USER_ID);
+        existing = subjectRepository.save(existing);
+        Subject foreign = new Subject();
+        foreign.setName("Chemistry");
+        foreign.setYear(1);
+        foreign.setUserId(USER_ID + 1);
+        foreign = subjectRepository.save(foreign);
+
+        String ndjson = String.join("\n",
+                "{\"record\":\"subject\",\"name\":\"Mathematics\",\"subjectKey\":\"MATH\",\"year\":2}",
+                "{\"record\":\"exam\",\"name\":\"Quiz 1\",\"grade\":12,\"maxGrade\":20,\"date\":\"2025-02-10\"}",
+                "{\"record\":\"exam\",\"name\":\"Quiz 2\",\"grade\":25,\"maxGrade\":20}",
+                "",
+                "{\"record\":\"exam\",\"name\":\"Midterm\",\"grade\":16,\"maxGrade\":20}",
+                "{\"record\":\"exam\",\"subjectId\":" + existing.getId() + ",\"name\":\"Final\",\"grade\":15,\"maxGrade\":20}",
+                "{\"record\":\"exam\",\"subjectId\":" + foreign.getId() + ",\"name\":\"Final\",\"grade\":15,\"maxGrade\":20}",
+                "{\"record\":\"exam\",\"name\":\"After\",\"grade\":1,\"maxGrade\":20}",
+                "{\"record\":\"subject\",\"name\":\"Biology\",\"year\":\"two\"}",
+                "not json",
+                "{\"record\":\"subject\",\"name\":\"English\",\"year\":1,\"teacher\":[\"A\"]}",
+                "{\"record\":\"homework\"}",
+                "{\"record\":\"subject\",\"name\":\"Geography\",\"year\":3}",
+                "{\"record\":\"exam\",\"subjectId\":" + existing.getId() + ",\"name\":\"Oral\",\"grade\":18,\"maxGrade\":20}");
+        JsonNode report = importBody(ImportController.NDJSON, ndjson);
+
+        assertEquals(7, report.get("imported").asLong());
+        assertEquals(6, report.get("rejected").asLong());
+        Map<Long, String> errors = errors(report);
+        // Bonus marks above maxGrade are accepted, as the exam endpoints accept them
+        assertFalse(errors.containsKey(3L));
+        assertEquals("subject " + foreign.getId() + " not found", errors.get(7L));
+        assertEquals("exam rows need a subjectId or must follow a subject row", errors.get(8L));
+        assertEquals("year must be a whole number", errors.get(9L));
+        assertTrue(errors.get(10L).startsWith("invalid JSON"));
+        assertEquals("teacher must be a single value", errors.get(11L));
+        assertEquals("unknown record 'homework'", errors.get(12L));
+
+        Subject math = subjectRepository.findWithExamsByUserId(USER_ID).stream()
+                .filter(s -> s.getName().equals("Mathematics")).findFirst().orElseThrow();
+        assertEquals(3, math.getExamCount());
+        assertEquals(53, math.getTotalGrade());
+        assertEquals(3, math.getExams().size());
+        Subject physics = subjectRepository.findById(existing.getId()).orElseThrow();
+        assertEquals(2, physics.getExamCount());
+        assertEquals(33, physics.getTotalGrade());
+        assertEquals(0, subjectRepository.findById(foreign.getId()).orElseThrow().getExamCount());
+    }
+
+    @Test
+    void largeImportIsWrittenInChunks() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            ndjson.append("{\"record\":\"task\",\"title\":\"Task ").append(i)
+                    .append("\",\"status\":\"DONE\",\"estimatedHours\":1,\"completedAt\":\"2025-01-")
+                    .append(String.format("%02d", i % 28 + 1)).append("\"}\n");
+            ndjson.append("{\"record\":\"subtask\",\"title\":\"Step\",\"status\":\"DONE\",\"estimatedHours\":1,")
+                    .append("\"completedAt\":\"2025-01-01\"}\n");
+        }
+        JsonNode report = importBody(ImportController.NDJSON, ndjson.toString());
+
+        assertEquals(4000, report.get("imported").asLong());
+        assertEquals(0, report.get("rejected").asLong());
+        assertEquals(2000, taskRepository.count());
+        assertEquals(List.of(), rollupService.check());
+    }
+
+    @Test
+    void anonymousImportIsRefused() throws Exception {
+        mockMvc.perform(post("/api/import").contentType("text/csv").content("record,title\ntask,A\n"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode importBody(String contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/api/import")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + sessionTokenService.issue(USER_ID))
+                        .contentType(contentType)
+                        .content(body.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+
+    private static Map<Long, String> errors(JsonNode report) {
+        Map<Long, String> errors = new LinkedHashMap<>();
+        report.get("errors").forEach(error -> errors.put(error.get("row").asLong(), error.get("message").asText()));
+        return errors;
+    }
+}
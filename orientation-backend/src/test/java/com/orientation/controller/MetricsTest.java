@@ -0,0 +1,74 @@
+package com.orientation.controller;
+
+import com.orientation.service.SessionTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape carries endpoint latency histograms, statements per
+ * request, Hibernate statistics, pool gauges and the slow-statement count.
+ */
+@SpringBootTest(properties = {
+        "orientation.auth.admin-user-ids=" + MetricsTest.ADMIN_ID,
+        // Every statement counts as slow here
+        "orientation.slow-query.threshold=0ms",
+        "orientation.slow-query.sample-rate=1"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+
+    static final long ADMIN_ID = 990L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Test
+    void prometheusScrapeCoversEndpointsJpaAndPools() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/dashboard/summary")
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + sessionTokenService.issue(91L)))
+                    .andExpect(status().isOk());
+        }
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + sessionTokenService.issue(ADMIN_ID)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(3, value(scrape, "http_server_requests_seconds_bucket\\{.*uri=\"/api/dashboard/summary\",le=\"\\+Inf\"\\}"),
+                "endpoint histogram");
+        assertEquals(3, value(scrape, "orientation_http_queries_count\\{.*uri=\"/api/dashboard/summary\".*\\}"),
+                "statements per request");
+        assertTrue(scrape.contains("orientation_http_queries_bucket{"));
+        assertTrue(value(scrape, "orientation_http_queries_sum\\{.*uri=\"/api/dashboard/summary\".*\\}") > 0);
+        assertTrue(scrape.contains("hibernate_query_executions_total"), "hibernate statistics");
+        assertTrue(scrape.contains("hibernate_entities_loads_total"));
+        assertTrue(scrape.contains("hibernate_collections_fetches_total"));
+        assertTrue(scrape.contains("hikaricp_connections_active"), "pool gauges");
+        assertTrue(value(scrape, "orientation_jdbc_slow_total\\{.*\\}") > 0, "slow statements");
+    }
+
+    private static double value(String scrape, String series) {
+        Matcher matcher = Pattern.compile("(?m)^" + series + " (\\S+)$").matcher(scrape);
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,106 @@
+package com.orientation.controller;
+
+import com.orientation.support.StubModelServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A slow model (2 s per call) flooded with predictions must neither tie up
+ * Tomcat's ten threads nor queue without limit: other endpoints keep answering
+ * quickly and the overflow gets 503s.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=10",
+        "orientation.async.threads=4",
+        "orientation.async.queue-capacity=4",
+        "orientation.cache.enabled=false"
+})
+@ActiveProfiles("test")
+class OrientationControllerLoadTest {
+
+    private static final StubModelServer MODEL = startModel();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @DynamicPropertySource
+    static void modelUrl(DynamicPropertyRegistry registry) {
+        registry.add("orientation.model.url", MODEL::url);
+    }
+
+    @AfterAll
+    static void stopModel() {
+        MODEL.close();
+    }
+
+    @Test
+    void slowModelDoesNotStallOtherEndpoints() throws Exception {
+        HttpRequest dashboard = HttpRequest.newBuilder(uri("/api/dashboard/summary")).build();
+        client.send(dashboard, HttpResponse.BodyHandlers.ofString());
+
+        List<CompletableFuture<HttpResponse<String>>> predictions = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String body = "{\"mathScore\":" + i + ",\"physicsScore\":50,\"chemistryScore\":50,\"biologyScore\":50,"
+                    + "\"englishScore\":50,\"geographyScore\":50,\"weeklySelfStudyHours\":10,\"absenceDays\":1}";
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/orientation/predict"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            predictions.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        Thread.sleep(200);
+
+        long slowest = 0;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(dashboard, HttpResponse.BodyHandlers.ofString());
+            slowest = Math.max(slowest, (System.nanoTime() - start) / 1_000_000);
+            assertTrue(response.statusCode() == 200);
+        }
+        assertTrue(slowest < 1000, "dashboard took " + slowest + " ms while the model was busy");
+
+        long ok = 0;
+        long rejected = 0;
+        for (CompletableFuture<HttpResponse<String>> prediction : predictions) {
+            int status = prediction.get().statusCode();
+            if (status == 200)
+                ok++;
+            if (status == 503)
+                rejected++;
+        }
+        assertTrue(ok >= 4, ok + " predictions succeeded");
+        assertTrue(rejected > 0, "saturated executor should reject with 503");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static StubModelServer startModel() {
+        try {
+            return new StubModelServer(2000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
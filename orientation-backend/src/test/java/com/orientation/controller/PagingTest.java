@@ -0,0 +1,195 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.SessionTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walking every page of a keyset listing returns each matching row exactly once,
+ * in the same order and with the same filters as the full listing, and the
+ * streamed full listing matches what the repository returns.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PagingTest {
+
+    private static final long USER_ID = 31L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        subjectRepository.deleteAll();
+    }
+
+    @Test
+    void taskPagesCoverFilteredListingInOrder() throws Exception {
+        Random random = new Random(5);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            // Few distinct dates and some without one, so ties and nulls cross page boundaries
+            task.setDueDate(random.nextInt(5) == 0 ? null : start.plusDays(random.nextInt(10)));
+            task.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+            task.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+            SubTask subTask = new SubTask();
+            subTask.setTitle("Step " + i);
+            subTask.setParentTask(task);
+            task.getSubTasks().add(subTask);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+
+        Comparator<Task> order = Comparator.comparing(Task::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Task::getId);
+        List<Long> all = tasks.stream().sorted(order).map(Task::getId).toList();
+        assertEquals(all, walk("/api/tasks?limit=7", true));
+
+        List<Long> todo = tasks.stream().filter(t -> t.getStatus() == TaskStatus.TODO).sorted(order)
+                .map(Task::getId).toList();
+        assertEquals(todo, walk("/api/tasks?limit=3&includeSubTasks=false&status=TODO", false));
+
+        LocalDate from = start.plusDays(2);
+        LocalDate to = start.plusDays(6);
+        List<Long> ranged = tasks.stream()
+                .filter(t -> t.getPriority() == TaskPriority.HIGH)
+                .filter(t -> t.getDueDate() != null && !t.getDueDate().isBefore(from) && !t.getDueDate().isAfter(to))
+                .sorted(order).map(Task::getId).toList();
+        assertEquals(ranged, walk("/api/tasks?limit=4&priority=HIGH&dueFrom=" + from + "&dueTo=" + to, true));
+    }
+
+    @Test
+    void subjectPagesCoverFilteredListingInOrder() throws Exception {
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Subject subject = new Subject();
+            subject.setName(i % 6 == 0 ? null : "Subject " + (i % 4));
+            subject.setYear(1 + i % 3);
+            subject.setUserId(USER_ID);
+            Exam exam = new Exam();
+            exam.setName("Exam " + i);
+            exam.setSubject(subject);
+            subject.getExams().add(exam);
+            subjects.add(subject);
+        }
+        subjectRepository.saveAll(subjects);
+
+        Comparator<Subject> order = Comparator.comparingInt(Subject::getYear)
+                .thenComparing(Subject::getName, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Subject::getId);
+        List<Long> all = subjects.stream().sorted(order).map(Subject::getId).toList();
+        assertEquals(all, walk("/api/grades/subjects?limit=4", true));
+
+        List<Long> second = subjects.stream().filter(s -> s.getYear() == 2).sorted(order)
+                .map(Subject::getId).toList();
+        assertEquals(second, walk("/api/grades/subjects?limit=2&year=2&includeExams=false", false));
+    }
+
+    @Test
+    void unpagedListingStreamsSameTasksAsRepository() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            for (int j = 0; j < i % 4; j++) {
+                SubTask subTask = new SubTask();
+                subTask.setTitle("Step " + j);
+                subTask.setParentTask(task);
+                task.getSubTasks().add(subTask);
+            }
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+
+        List<Task> expected = taskRepository.findWithSubTasksByUserId(USER_ID).stream()
+                .sorted(Comparator.comparing(Task::getId)).toList();
+        String streamed = mockMvc.perform(get("/api/tasks").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(mapper.readTree(mapper.writeValueAsString(expected)), mapper.readTree(streamed));
+
+        assertEquals("[]", mockMvc.perform(get("/api/tasks")).andReturn().getResponse().getContentAsString());
+    }
+
+    @Test
+    void rejectsInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/tasks?limit=5&cursor=not-a-cursor").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/grades/subjects?limit=0").header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Follows nextCursor to the end and returns the ids in page order
+    private List<Long> walk(String url, boolean nested) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String page = mockMvc.perform(get(cursor == null ? url : url + "&cursor=" + cursor)
+                            .header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode body = mapper.readTree(page);
+            for (JsonNode item : body.get("items")) {
+                ids.add(item.get("id").asLong());
+                boolean hasChildren = item.has("subTasks") || item.has("exams");
+                assertEquals(nested, hasChildren);
+                if (nested)
+                    assertFalse((item.has("subTasks") ? item.get("subTasks") : item.get("exams")).isEmpty());
+            }
+            cursor = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+            assertTrue(cursor == null || !body.get("items").isEmpty());
+        } while (cursor != null);
+        return ids;
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,139 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.User;
+import com.orientation.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins upgrade hashes made at a lower BCrypt cost, and a full hashing queue
+ * answers 429 instead of holding the request.
+ */
+@SpringBootTest(properties = {
+        "orientation.auth.bcrypt-strength=5",
+        "orientation.auth.hash-threads=1",
+        "orientation.auth.hash-queue-capacity=1" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PasswordHashTest {
+
+    private static final Map<String, String> CREDENTIALS = Map.of("email", "cy@example.com", "password", "secret");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("passwordHashExecutor")
+    private ThreadPoolExecutor passwordHashExecutor;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void loginUpgradesWeakerHash() throws Exception {
+        User user = new User();
+        user.setEmail("cy@example.com");
+        user.setName("Cy");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        userRepository.save(user);
+        double upgradedBefore = meterRegistry.counter("orientation.password.hash.upgraded").count();
+
+        assertTrue(login().get("success").asBoolean());
+        String rehashed = userRepository.findByEmail("cy@example.com").orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$05$"), rehashed);
+
+        // Already at the configured cost: left alone
+        assertTrue(login().get("success").asBoolean());
+        assertEquals(rehashed, userRepository.findByEmail("cy@example.com").orElseThrow().getPassword());
+        assertEquals(upgradedBefore + 1, meterRegistry.counter("orientation.password.hash.upgraded").count());
+    }
+
+    @Test
+    void fullQueueAnswersTooManyRequests() throws Exception {
+        User user = new User();
+        user.setEmail("cy@example.com");
+        user.setName("Cy");
+        user.setPassword(new BCryptPasswordEncoder(5).encode("secret"));
+        userRepository.save(user);
+
+        // Occupy the only thread and the only queue slot
+        long completedBefore = passwordHashExecutor.getCompletedTaskCount();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        passwordHashExecutor.execute(() -> {
+            running.countDown();
+            await(release);
+        });
+        running.await();
+        passwordHashExecutor.execute(() -> await(release));
+        double rejectedBefore = meterRegistry.counter("orientation.password.hash.rejected").count();
+        try {
+            mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(CREDENTIALS)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            assertEquals(1.0, meterRegistry.get("orientation.password.hash.active").gauge().value());
+            assertEquals(1.0, meterRegistry.get("orientation.password.hash.queued").gauge().value());
+            assertEquals(rejectedBefore + 1, meterRegistry.counter("orientation.password.hash.rejected").count());
+        } finally {
+            release.countDown();
+        }
+
+        // The queued blocker leaves the queue only once the running one has finished
+        while (passwordHashExecutor.getCompletedTaskCount() < completedBefore + 2)
+            Thread.sleep(10);
+        assertTrue(login().get("success").asBoolean());
+    }
+
+    private JsonNode login() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(CREDENTIALS)))
+                .andReturn();
+        return mapper.readTree(mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
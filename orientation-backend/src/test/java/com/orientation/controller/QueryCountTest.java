@@ -0,0 +1,166 @@
+package com.orientation.controller;
+
+import com.orientation.model.Exam;
+import com.orientation.model.SubTask;
+import com.orientation.model.Subject;
+import com.orientation.model.Task;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.SubjectRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.DataVersionService;
+import com.orientation.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read endpoints that walk subTasks or exams must issue the same number of
+ * statements whether the student has 1 task or 1000.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "orientation.calendar.cache-enabled=false",
+        // Seeding 1000 tasks outlasts the default, which would re-read the ETag version mid-run
+        "orientation.data-version.ttl=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTest {
+
+    private static final long USER_ID = 42L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The ETag version is read from the table once per user and ttl, then from memory
+        dataVersionService.current(USER_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        subjectRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 100, 1000 })
+    void readEndpointsRunConstantStatements(int tasks) throws Exception {
+        seed(tasks);
+        LocalDate today = LocalDate.now();
+
+        Map<String, Long> expected = new LinkedHashMap<>();
+        expected.put("/api/dashboard/summary", 3L);
+        expected.put("/api/dashboard/upcoming", 2L);
+        expected.put("/api/dashboard/calendar?year=" + today.getYear() + "&month=" + today.getMonthValue(), 3L);
+        // The per-user subject query is in the query cache from /summary on
+        expected.put("/api/dashboard/all", 7L);
+        expected.put("/api/tasks", 1L);
+        expected.put("/api/tasks/analytics/hours", 1L);
+        expected.put("/api/tasks/analytics/hours/week", 1L);
+        expected.put("/api/tasks/analytics/hours/history", 1L);
+        expected.put("/api/grades/subjects", 1L);
+        expected.put("/api/grades/analytics/year-averages", 1L);
+        expected.put("/api/grades/analytics/year/1/ml-data", 0L);
+
+        Map<String, Long> actual = new LinkedHashMap<>();
+        for (String path : expected.keySet()) {
+            statistics.clear();
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID))).andExpect(status().isOk());
+            actual.put(path, statistics.getPrepareStatementCount());
+        }
+        assertEquals(expected, actual, "statements per endpoint with " + tasks + " tasks");
+    }
+
+    private void seed(int count) {
+        LocalDate today = LocalDate.now();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(USER_ID);
+            task.setEstimatedHours(2);
+            task.setDueDate(today.plusDays(i % 10));
+            if (i % 3 == 0) {
+                task.setStatus(TaskStatus.DONE);
+                task.setCompletedAt(today.minusDays(i % 50));
+            }
+            for (int j = 0; j < 2; j++) {
+                SubTask subTask = new SubTask();
+                subTask.setTitle("Step " + j);
+                subTask.setStatus(j == 0 ? TaskStatus.DONE : TaskStatus.TODO);
+                subTask.setEstimatedHours(1);
+                subTask.setDueDate(today.plusDays(j));
+                subTask.setCompletedAt(j == 0 ? today.minusDays(i % 50) : null);
+                subTask.setParentTask(task);
+                task.getSubTasks().add(subTask);
+            }
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+
+        List<Subject> subjects = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, count / 10); i++) {
+            Subject subject = new Subject();
+            subject.setSubjectKey("MATH");
+            subject.setName("Mathematics " + i);
+            subject.setYear(1 + i % 3);
+            subject.setUserId(USER_ID);
+            for (int j = 0; j < 3; j++) {
+                Exam exam = new Exam();
+                exam.setName("Quiz " + j);
+                exam.setDate(today.plusDays(j * 3));
+                exam.setGrade(12 + j);
+                exam.setMaxGrade(20);
+                exam.setSubject(subject);
+                subject.getExams().add(exam);
+                subject.addToTotals(exam);
+            }
+            subjects.add(subject);
+        }
+        subjectRepository.saveAll(subjects);
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
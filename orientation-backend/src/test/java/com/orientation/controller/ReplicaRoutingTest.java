@@ -0,0 +1,173 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.config.ReplicaHealthMonitor;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.SessionTokenService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory databases stand in for primary and replica. Rows written only
+ * to the replica show which database answered: analytics reads come from the
+ * replica while it is healthy, everything else from the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,MONTH,DAY,VALUE,USER",
+        "orientation.replica.enabled=true",
+        "orientation.replica.url=jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR,MONTH,DAY,VALUE,USER",
+        "orientation.replica.username=sa",
+        "orientation.replica.password=",
+        "orientation.replica.lag-query=SELECT lag_ms FROM replica_lag",
+        "orientation.replica.max-lag=1s",
+        // Checks run when the test asks for them
+        "orientation.replica.check-interval=1h",
+        "orientation.auth.admin-user-ids=" + ReplicaRoutingTest.ADMIN_ID
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final long ADMIN_ID = 90L;
+
+    private static final String HOURS = "/api/tasks/analytics/hours";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StudyHoursDailyRepository rollupRepository;
+
+    @Autowired
+    private ReplicaHealthMonitor replicaHealthMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        // The replica gets the primary's schema, as replication would give it
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("CREATE USER"))
+                replica.execute(statement);
+        }
+        replica.execute("CREATE TABLE replica_lag (lag_ms BIGINT)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replicaHealthMonitor.check();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void analyticsReadsGoToHealthyReplica() throws Exception {
+        replicaHours(81L, 7.5);
+        assertEquals(7.5, hours(81L), 1e-9);
+
+        JsonNode stats = mapper.readTree(mockMvc.perform(get("/api/admin/datasource/stats")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(ADMIN_ID)))
+                .andReturn().getResponse().getContentAsString());
+        assertTrue(stats.get("replicaEnabled").asBoolean());
+        assertTrue(stats.get("routing").get("replicaConnections").asLong() > 0);
+        assertEquals("replica", stats.get("pools").get("replica").get("name").asText());
+    }
+
+    @Test
+    void laggingOrFailingReplicaFallsBackToPrimary() throws Exception {
+        replicaHours(82L, 4.0);
+        assertEquals(4.0, hours(82L), 1e-9);
+
+        replica.update("UPDATE replica_lag SET lag_ms = 60000");
+        replicaHealthMonitor.check();
+        assertFalse(replicaHealthMonitor.isAvailable());
+        assertEquals(0.0, hours(82L), 1e-9);
+
+        replica.update("UPDATE replica_lag SET lag_ms = 10");
+        replicaHealthMonitor.check();
+        assertEquals(4.0, hours(82L), 1e-9);
+
+        // A failing lag query takes the replica out as well
+        replica.execute("DROP TABLE replica_lag");
+        replicaHealthMonitor.check();
+        assertFalse(replicaHealthMonitor.isAvailable());
+        assertEquals(0.0, hours(82L), 1e-9);
+    }
+
+    @Test
+    void writesAndTheirReadsStayOnPrimary() throws Exception {
+        replicaHours(83L, 2.0);
+        String created = mockMvc.perform(post("/api/tasks").header(HttpHeaders.AUTHORIZATION, bearer(83L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(Map.of("title", "Essay", "estimatedHours", 1.0))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long taskId = mapper.readTree(created).get("id").asLong();
+
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class));
+        // Loaded through the repository's own transaction, so from the primary, which has it
+        mockMvc.perform(get("/api/tasks/" + taskId).header(HttpHeaders.AUTHORIZATION, bearer(83L)))
+                .andExpect(status().isOk());
+        // Just wrote: the user's analytics come from the primary until the replica can have caught up
+        assertEquals(0.0, hours(83L), 1e-9);
+    }
+
+    private void replicaHours(long userId, double hours) {
+        // Ids come from a sequence on the primary; the user's id is free in the replica's fresh table
+        replica.update("INSERT INTO study_hours_daily (id, user_id, day, done_hours, completed_count) VALUES (?, ?, ?, ?, 0)",
+                userId, userId, LocalDate.now(), hours);
+    }
+
+    private double hours(long userId) throws Exception {
+        return Double.parseDouble(mockMvc.perform(get(HOURS).header(HttpHeaders.AUTHORIZATION, bearer(userId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
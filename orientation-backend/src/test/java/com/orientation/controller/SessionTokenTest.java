@@ -0,0 +1,162 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.config.OrientationProperties;
+import com.orientation.repository.UserRepository;
+import com.orientation.service.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login hands out a signed token that identifies the user on later requests
+ * without touching the database; tampered and expired tokens are refused.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void loginTokenIdentifiesUserWithoutQueries() throws Exception {
+        postJson("/api/auth/register", Map.of("email", "ada@example.com", "password", "secret", "name", "Ada"));
+        JsonNode login = postJson("/api/auth/login", Map.of("email", "ada@example.com", "password", "secret"));
+        assertTrue(login.get("success").asBoolean());
+        String token = login.get("token").asText();
+        assertNotNull(login.get("expiresAt"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        JsonNode me = me("Bearer " + token, 200);
+        assertTrue(me.get("loggedIn").asBoolean());
+        assertEquals(login.get("user").get("id").asLong(), me.get("user").get("id").asLong());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // The old header no longer identifies anyone
+        assertFalse(mapper.readTree(mockMvc.perform(get("/api/auth/me")
+                        .header("X-User-Id", login.get("user").get("id").asLong()))
+                .andReturn().getResponse().getContentAsString()).get("loggedIn").asBoolean());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() throws Exception {
+        JsonNode register = postJson("/api/auth/register", Map.of("email", "bo@example.com", "password", "secret", "name", "Bo"));
+        String token = register.get("token").asText();
+        String otherUser = new String(Base64.getUrlEncoder().withoutPadding()
+                .encode(("999:" + Instant.now().plusSeconds(3600).getEpochSecond()).getBytes()));
+
+        me("Bearer " + otherUser + token.substring(token.indexOf('.')), 401);
+        me("Bearer " + token.substring(0, token.length() - 2), 401);
+        me("Bearer not-a-token", 401);
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.AUTHORIZATION, "Bearer x.y"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void expiredTokenFailsVerification() {
+        OrientationProperties.Auth auth = new OrientationProperties.Auth();
+        auth.setTokenSecret("test-secret");
+        auth.setTokenTtl(Duration.ofMinutes(5));
+        Instant issuedAt = Instant.parse("2026-01-01T00:00:00Z");
+
+        String token = new SessionTokenService(auth, Clock.fixed(issuedAt, ZoneOffset.UTC)).issue(5L);
+        assertEquals(5L, new SessionTokenService(auth, Clock.fixed(issuedAt.plusSeconds(299), ZoneOffset.UTC))
+                .verify(token).userId());
+        assertNull(new SessionTokenService(auth, Clock.fixed(issuedAt.plusSeconds(300), ZoneOffset.UTC))
+                .verify(token));
+
+        // Verified once, then the clock moves past expiry: the cached entry must not outlive it
+        MutableClock clock = new MutableClock(issuedAt);
+        SessionTokenService service = new SessionTokenService(auth, clock);
+        assertNotNull(service.verify(token));
+        clock.now = issuedAt.plusSeconds(301);
+        assertNull(service.verify(token));
+    }
+
+    private JsonNode me(String authorization, int expectedStatus) throws Exception {
+        String body = mockMvc.perform(get("/api/auth/me").header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(body);
+    }
+
+    // Register and login answer asynchronously, once the password hash is done
+    private JsonNode postJson(String path, Object body) throws Exception {
+        MvcResult started = mockMvc.perform(
+                        post(path).contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(body)))
+                .andReturn();
+        return mapper.readTree(mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static class MutableClock extends Clock {
+
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.orientation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.TaskRepository;
+import com.orientation.service.SessionTokenService;
+import com.orientation.service.StudyHoursRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Random task edits through the API must keep study_hours_daily equal to a
+ * rebuild from the raw tables, and concurrent writes to a day that has no row
+ * yet must all land.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskRollupTest {
+
+    private static final long USER_ID = 7L;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SessionTokenService sessionTokenService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StudyHoursDailyRepository rollupRepository;
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void randomEditsKeepRollupConsistent() throws Exception {
+        Random random = new Random(9);
+        List<Long> taskIds = new ArrayList<>();
+
+        for (int step = 0; step < 300; step++) {
+            int action = taskIds.isEmpty() ? 0 : random.nextInt(5);
+            if (action == 0) {
+                Map<String, Object> task = new LinkedHashMap<>();
+                task.put("title", "Task " + step);
+                task.put("estimatedHours", random.nextInt(8) * 0.5);
+                // Created DONE without a completion date: lands in the undated bucket
+                if (random.nextInt(5) == 0)
+                    task.put("status", "DONE");
+                taskIds.add(send(post("/api/tasks"), task).get("id").asLong());
+                continue;
+            }
+
+            Long taskId = taskIds.get(random.nextInt(taskIds.size()));
+            JsonNode task = mapper.readTree(mockMvc.perform(get("/api/tasks/" + taskId).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                    .andReturn().getResponse().getContentAsString());
+            switch (action) {
+                case 1 -> {
+                    Map<String, Object> update = new LinkedHashMap<>();
+                    update.put("title", task.get("title").asText());
+                    update.put("status", STATUSES[random.nextInt(STATUSES.length)].name());
+                    update.put("estimatedHours", random.nextInt(12) * 0.5);
+                    send(put("/api/tasks/" + taskId), update);
+                }
+                case 2 -> {
+                    Map<String, Object> subTask = new LinkedHashMap<>();
+                    subTask.put("title", "Step " + step);
+                    subTask.put("estimatedHours", random.nextInt(6) * 0.5);
+                    send(post("/api/tasks/" + taskId + "/subtasks"), subTask);
+                }
+                case 3 -> {
+                    JsonNode subTasks = task.get("subTasks");
+                    if (subTasks.isEmpty())
+                        continue;
+                    long subId = subTasks.get(random.nextInt(subTasks.size())).get("id").asLong();
+                    send(patch("/api/tasks/" + taskId + "/subtasks/" + subId),
+                            Map.of("status", STATUSES[random.nextInt(STATUSES.length)].name()));
+                }
+                default -> {
+                    if (random.nextInt(3) != 0)
+                        continue;
+                    mockMvc.perform(delete("/api/tasks/" + taskId).header(HttpHeaders.AUTHORIZATION, bearer(USER_ID)))
+                            .andExpect(status().isOk());
+                    taskIds.remove(taskId);
+                }
+            }
+
+            if (step % 50 == 0)
+                assertEquals(List.of(), rollupService.check(), "after step " + step);
+        }
+        assertEquals(List.of(), rollupService.check());
+        assertTrue(rollupRepository.count() > 0);
+    }
+
+    @Test
+    void concurrentFirstWritesToOneDayAllLand() throws Exception {
+        int writers = 8;
+        LocalDate day = LocalDate.of(2025, 5, 5);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<JsonNode>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                Map<String, Object> task = Map.of("title", "Race " + i, "status", "DONE",
+                        "estimatedHours", 1.5, "completedAt", day.toString());
+                Callable<JsonNode> write = () -> {
+                    start.await();
+                    return send(post("/api/tasks"), task);
+                };
+                results.add(executor.submit(write));
+            }
+            start.countDown();
+            for (Future<JsonNode> result : results)
+                result.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(List.of(), rollupService.check());
+        assertEquals(1, rollupRepository.findByUserId(USER_ID).size());
+        assertEquals(writers, rollupRepository.findByUserId(USER_ID).get(0).getCompletedCount());
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        String response = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer(USER_ID))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+
+    private String bearer(long userId) {
+        return "Bearer " + sessionTokenService.issue(userId);
+    }
+}
@@ -0,0 +1,177 @@
+package com.orientation.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-loop HTTP load: requests start on a fixed schedule at the target rate
+ * whether or not earlier ones have answered, each one drawn from a weighted
+ * mix of operations. Latency is measured from the scheduled start, so a
+ * server that falls behind shows it in the percentiles instead of quietly
+ * lowering the rate. Requests that would exceed the in-flight cap are counted
+ * as dropped rather than queued.
+ */
+public class LoadDriver {
+
+    // One kind of request; build turns a random source into a ready request
+    public record Operation(String name, int weight, Function<Random, HttpRequest> build) {
+    }
+
+    private final HttpClient client;
+
+    private final ExecutorService executor;
+
+    private final List<Operation> operations;
+
+    private final int totalWeight;
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public LoadDriver(List<Operation> operations, int threads) {
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : operations)
+            recorders.put(operation.name(), new Recorder());
+    }
+
+    /**
+     * Runs the warmup and then the measured period at {@code rate} requests per
+     * second, and waits for in-flight requests before returning. Only requests
+     * scheduled after the warmup are recorded.
+     */
+    public void run(double rate, Duration warmup, Duration duration, int maxInFlight, long seed)
+            throws InterruptedException {
+        Random random = new Random(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(wait);
+
+            Operation operation = pick(random);
+            boolean measured = scheduled >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured)
+                    dropped.increment();
+                continue;
+            }
+            Recorder recorder = measured ? recorders.get(operation.name()) : null;
+            long startedAt = scheduled;
+            client.sendAsync(operation.build().apply(random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (recorder != null)
+                            recorder.record(System.nanoTime() - startedAt,
+                                    error == null && response.statusCode() < 400);
+                    });
+        }
+        // Let the stragglers finish, as long as they answer within the timeout
+        inFlight.tryAcquire(maxInFlight, 30, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    // Per operation: count, errors, achieved rate and latency percentiles in milliseconds
+    public Map<String, Map<String, Object>> report(Duration duration) {
+        Map<String, Map<String, Object>> report = new LinkedHashMap<>();
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet())
+            report.put(entry.getKey(), entry.getValue().summary(duration));
+        return report;
+    }
+
+    public String format(Duration duration) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-12s %8s %7s %8s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, Map<String, Object>> entry : report(duration).entrySet()) {
+            Map<String, Object> row = entry.getValue();
+            out.append(String.format(Locale.ROOT, "%-12s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    row.get("count"), row.get("errors"), row.get("rate"),
+                    row.get("p50"), row.get("p95"), row.get("p99"), row.get("max")));
+        }
+        out.append("dropped (in-flight cap): ").append(dropped()).append(System.lineSeparator());
+        return out.toString();
+    }
+
+    private Operation pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0)
+                return operation;
+        }
+        throw new IllegalStateException("Weights changed while running");
+    }
+
+    // Latencies are kept whole; a run of a few minutes at a few hundred req/s is small enough to sort
+    private static class Recorder {
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private int errors;
+
+        synchronized void record(long nanos, boolean success) {
+            if (count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+            if (!success)
+                errors++;
+        }
+
+        synchronized Map<String, Object> summary(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("errors", errors);
+            summary.put("rate", count / (duration.toMillis() / 1000.0));
+            summary.put("p50", percentile(sorted, 0.50));
+            summary.put("p95", percentile(sorted, 0.95));
+            summary.put("p99", percentile(sorted, 0.99));
+            summary.put("max", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1e6);
+            return summary;
+        }
+
+        // Nearest rank
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0)
+                return 0.0;
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
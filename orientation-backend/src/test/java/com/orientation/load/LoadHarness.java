@@ -0,0 +1,211 @@
+package com.orientation.load;
+
+import com.orientation.OrientationBackendApplication;
+import com.orientation.config.OrientationProperties;
+import com.orientation.service.SessionTokenService;
+import com.orientation.service.StudyHoursRollupService;
+import com.orientation.support.StubModelServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * End-to-end load run: boots the application on a random port, fills it with
+ * synthetic users, then replays a mixed workload against it and prints latency
+ * percentiles per operation. The model server is a local stub with a fixed
+ * latency, so predict measures this service rather than the model.
+ *
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.args="users=200 rate=100 duration=60"
+ * </pre>
+ *
+ * Arguments are key=value; anything starting with -- goes to Spring as is. The
+ * default is the in-memory test database. For a local PostgreSQL with the
+ * Flyway schema, drop the test profile and point the datasource at it:
+ * {@code profile=default --spring.datasource.url=jdbc:postgresql://localhost:5432/orientation_load}.
+ * Generated users are added to whatever is there; their emails carry the seed.
+ */
+public class LoadHarness {
+
+    private static final String PASSWORD = "load-test-password";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+            } else {
+                String[] pair = arg.split("=", 2);
+                options.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+        }
+
+        SyntheticDataGenerator.Settings data = new SyntheticDataGenerator.Settings();
+        data.users = intOption(options, "users", data.users);
+        data.tasksPerUser = rangeOption(options, "tasks", data.tasksPerUser);
+        data.subtasksPerTask = rangeOption(options, "subtasks", data.subtasksPerTask);
+        data.subjectsPerUser = rangeOption(options, "subjects", data.subjectsPerUser);
+        data.examsPerSubject = rangeOption(options, "exams", data.examsPerSubject);
+        data.doneRatio = Double.parseDouble(options.getOrDefault("done-ratio", String.valueOf(data.doneRatio)));
+        data.batchSize = intOption(options, "batch-size", data.batchSize);
+        data.seed = Long.parseLong(options.getOrDefault("seed", String.valueOf(data.seed)));
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        Duration warmup = Duration.ofSeconds(intOption(options, "warmup", 10));
+        Duration duration = Duration.ofSeconds(intOption(options, "duration", 30));
+        int maxInFlight = intOption(options, "max-in-flight", 256);
+        int modelLatency = intOption(options, "model-latency", 20);
+
+        // devtools would restart main in a fresh class loader and run everything twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (StubModelServer model = new StubModelServer(modelLatency)) {
+            springArgs.add("--server.port=0");
+            springArgs.add("--orientation.model.url=" + model.url());
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(OrientationBackendApplication.class)
+                    .profiles(options.getOrDefault("profile", "test"))
+                    .run(springArgs.toArray(String[]::new));
+            try {
+                run(context, data, rate, warmup, duration, maxInFlight);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext context, SyntheticDataGenerator.Settings data,
+            double rate, Duration warmup, Duration duration, int maxInFlight) throws Exception {
+        data.allocationSize = context.getBean(OrientationProperties.class).getIds().getAllocationSize();
+        long started = System.nanoTime();
+        List<SyntheticDataGenerator.GeneratedUser> users = new SyntheticDataGenerator(
+                context.getBean(DataSource.class), data,
+                context.getBean(PasswordEncoder.class).encode(PASSWORD)).generate();
+        context.getBean(StudyHoursRollupService.class).rebuild();
+        System.out.printf(Locale.ROOT, "Generated %d users in %d ms%n", users.size(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+
+        SessionTokenService tokens = context.getBean(SessionTokenService.class);
+        Map<Long, String> bearers = new HashMap<>();
+        for (SyntheticDataGenerator.GeneratedUser user : users)
+            bearers.put(user.id(), "Bearer " + tokens.issue(user.id()));
+
+        String base = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        LoadDriver driver = new LoadDriver(operations(base, users, bearers), 16);
+        try {
+            System.out.printf(Locale.ROOT, "Running %.0f req/s for %ds after %ds warmup%n", rate,
+                    duration.toSeconds(), warmup.toSeconds());
+            driver.run(rate, warmup, duration, maxInFlight, data.seed);
+            System.out.print(driver.format(duration));
+        } finally {
+            driver.shutdown();
+        }
+    }
+
+    // Reads outweigh writes, as for a student opening the app several times between edits
+    private static List<LoadDriver.Operation> operations(String base, List<SyntheticDataGenerator.GeneratedUser> users,
+            Map<Long, String> bearers) {
+        LocalDate today = LocalDate.now();
+        List<LoadDriver.Operation> operations = new ArrayList<>();
+        operations.add(new LoadDriver.Operation("login", 5, random -> {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random);
+            return post(base + "/api/auth/login", null,
+                    "{\"email\":\"" + user.email() + "\",\"password\":\"" + PASSWORD + "\"}");
+        }));
+        operations.add(new LoadDriver.Operation("dashboard", 40, random -> {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random);
+            return HttpRequest.newBuilder(URI.create(base + "/api/dashboard/all"))
+                    .header("Authorization", bearers.get(user.id())).GET().build();
+        }));
+        operations.add(new LoadDriver.Operation("calendar", 20, random -> {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random);
+            LocalDate month = today.plusMonths(random.nextInt(3) - 1);
+            return HttpRequest.newBuilder(URI.create(base + "/api/dashboard/calendar?year=" + month.getYear()
+                            + "&month=" + month.getMonthValue()))
+                    .header("Authorization", bearers.get(user.id())).GET().build();
+        }));
+        operations.add(new LoadDriver.Operation("task-update", 15, random -> {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random, u -> !u.taskIds().isEmpty());
+            long taskId = user.taskIds().get(random.nextInt(user.taskIds().size()));
+            String status = random.nextInt(3) == 0 ? "DONE" : "IN_PROGRESS";
+            return put(base + "/api/tasks/" + taskId, bearers.get(user.id()), String.format(Locale.ROOT,
+                    "{\"title\":\"Task %d\",\"status\":\"%s\",\"priority\":\"MEDIUM\",\"estimatedHours\":%.1f,"
+                            + "\"actualHours\":%.1f,\"dueDate\":\"%s\"}",
+                    taskId, status, 1 + random.nextInt(8) * 0.5, random.nextInt(6) * 0.5,
+                    today.plusDays(random.nextInt(30))));
+        }));
+        operations.add(new LoadDriver.Operation("exam-entry", 10, random -> {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random, u -> !u.subjectIds().isEmpty());
+            long subjectId = user.subjectIds().get(random.nextInt(user.subjectIds().size()));
+            return post(base + "/api/grades/subjects/" + subjectId + "/exams", bearers.get(user.id()),
+                    String.format(Locale.ROOT,
+                            "{\"name\":\"Quiz\",\"type\":\"Quiz\",\"grade\":%d,\"maxGrade\":20,\"date\":\"%s\"}",
+                            random.nextInt(21), today));
+        }));
+        operations.add(new LoadDriver.Operation("predict", 10, random -> {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random);
+            return post(base + "/api/orientation/predict", bearers.get(user.id()), String.format(Locale.ROOT,
+                    "{\"mathScore\":%d,\"physicsScore\":%d,\"chemistryScore\":%d,\"biologyScore\":%d,"
+                            + "\"englishScore\":%d,\"geographyScore\":%d,\"weeklySelfStudyHours\":%d,"
+                            + "\"absenceDays\":%d}",
+                    random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+                    random.nextInt(101), random.nextInt(101), random.nextInt(30), random.nextInt(15)));
+        }));
+        return operations;
+    }
+
+    private static SyntheticDataGenerator.GeneratedUser pick(List<SyntheticDataGenerator.GeneratedUser> users,
+            Random random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    // Users drawn at random until one qualifies; a range starting at zero can leave some empty
+    private static SyntheticDataGenerator.GeneratedUser pick(List<SyntheticDataGenerator.GeneratedUser> users,
+            Random random, Predicate<SyntheticDataGenerator.GeneratedUser> usable) {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            SyntheticDataGenerator.GeneratedUser user = pick(users, random);
+            if (usable.test(user))
+                return user;
+        }
+        throw new IllegalStateException("No generated user has the rows this operation needs");
+    }
+
+    private static HttpRequest post(String url, String bearer, String json) {
+        return json(HttpRequest.newBuilder(URI.create(url)), bearer)
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private static HttpRequest put(String url, String bearer, String json) {
+        return json(HttpRequest.newBuilder(URI.create(url)), bearer)
+                .PUT(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder builder, String bearer) {
+        builder.header("Content-Type", "application/json");
+        if (bearer != null)
+            builder.header("Authorization", bearer);
+        return builder;
+    }
+
+    private static int intOption(Map<String, String> options, String key, int fallback) {
+        return Integer.parseInt(options.getOrDefault(key, String.valueOf(fallback)));
+    }
+
+    private static SyntheticDataGenerator.Range rangeOption(Map<String, String> options, String key,
+            SyntheticDataGenerator.Range fallback) {
+        return options.containsKey(key) ? SyntheticDataGenerator.Range.parse(options.get(key)) : fallback;
+    }
+}
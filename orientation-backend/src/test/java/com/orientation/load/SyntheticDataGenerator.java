@@ -0,0 +1,343 @@
+package com.orientation.load;
+
+import com.orientation.model.enums.TaskPriority;
+import com.orientation.model.enums.TaskStatus;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk-creates users with tasks and subtasks, subjects and exams through JDBC
+ * batch inserts, one transaction per chunk of users. Counts are drawn from the
+ * configured ranges; the same seed gives the same data. Subject grade totals
+ * are written alongside the exams, as the exam endpoints would keep them; the
+ * study-hours rollup is left to StudyHoursRollupService.rebuild(). Ids come
+ * from the entity sequences a block per nextval, as Hibernate's pooled
+ * generator takes them, so both can insert into the same tables.
+ *
+ * <p>Rows bypass Hibernate, so run this before the application serves the
+ * generated users, or their cached entries won't know about the new rows.
+ */
+public class SyntheticDataGenerator {
+
+    private static final String[] SUBJECT_KEYS = {
+        "MATH", "PHYSICS", "CHEMISTRY", "BIOLOGY", "ENGLISH", "GEOGRAPHY", "HISTORY", "ARTS"
+    };
+
+    private static final String[] EXAM_TYPES = { "Quiz", "Midterm", "Final", "Assignment" };
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    // Inclusive bounds, drawn uniformly
+    public record Range(int min, int max) {
+
+        public static Range parse(String value) {
+            String[] bounds = value.split("-");
+            return new Range(Integer.parseInt(bounds[0]), Integer.parseInt(bounds[bounds.length - 1]));
+        }
+
+        int sample(Random random) {
+            return min + random.nextInt(max - min + 1);
+        }
+    }
+
+    public static class Settings {
+        public int users = 100;
+        public Range tasksPerUser = new Range(10, 200);
+        public Range subtasksPerTask = new Range(0, 5);
+        public Range subjectsPerUser = new Range(6, 24);
+        public Range examsPerSubject = new Range(2, 12);
+        // Share of tasks and subtasks already DONE; due dates spread this many days either side of today
+        public double doneRatio = 0.4;
+        public int daySpread = 60;
+        public int batchSize = 500;
+        // Must be the sequences' INCREMENT BY, i.e. orientation.ids.allocation-size
+        public int allocationSize = 50;
+        public int usersPerTransaction = 50;
+        public long seed = 42;
+        public String emailPrefix = "load";
+    }
+
+    // What the load driver needs to address the generated data
+    public record GeneratedUser(long id, String email, List<Long> taskIds, List<Long> subjectIds) {
+    }
+
+    private final DataSource dataSource;
+
+    private final Settings settings;
+
+    private final String passwordHash;
+
+    private final Random random;
+
+    private final Sequence userSequence = new Sequence("users_seq");
+
+    private final Sequence taskSequence = new Sequence("tasks_seq");
+
+    private final Sequence subtaskSequence = new Sequence("subtasks_seq");
+
+    private final Sequence subjectSequence = new Sequence("subjects_seq");
+
+    private final Sequence examSequence = new Sequence("exams_seq");
+
+    private final LocalDate today = LocalDate.now();
+
+    public SyntheticDataGenerator(DataSource dataSource, Settings settings, String passwordHash) {
+        this.dataSource = dataSource;
+        this.settings = settings;
+        this.passwordHash = passwordHash;
+        this.random = new Random(settings.seed);
+    }
+
+    public List<GeneratedUser> generate() throws SQLException {
+        List<GeneratedUser> users = new ArrayList<>(settings.users);
+        for (int from = 0; from < settings.users; from += settings.usersPerTransaction) {
+            int to = Math.min(settings.users, from + settings.usersPerTransaction);
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                users.addAll(generateChunk(connection, from, to));
+                connection.commit();
+            }
+        }
+        return users;
+    }
+
+    private List<GeneratedUser> generateChunk(Connection connection, int from, int to) throws SQLException {
+        List<String> emails = new ArrayList<>();
+        for (int i = from; i < to; i++)
+            emails.add(settings.emailPrefix + "-" + settings.seed + "-" + i + "@example.com");
+        List<Long> userIds = insertUsers(connection, emails);
+
+        List<GeneratedUser> users = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            long userId = userIds.get(i);
+            users.add(new GeneratedUser(userId, emails.get(i), insertTasks(connection, userId),
+                    insertSubjects(connection, userId)));
+        }
+        return users;
+    }
+
+    private List<Long> insertUsers(Connection connection, List<String> emails) throws SQLException {
+        String sql = "INSERT INTO users (id, email, password, name, created_at) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Long> ids = new ArrayList<>(emails.size());
+            for (String email : emails) {
+                long id = userSequence.next(connection);
+                ids.add(id);
+                insert.setLong(1, id);
+                insert.setString(2, email);
+                insert.setString(3, passwordHash);
+                insert.setString(4, email.substring(0, email.indexOf('@')));
+                insert.setTimestamp(5, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            return ids;
+        }
+    }
+
+    private List<Long> insertTasks(Connection connection, long userId) throws SQLException {
+        int count = settings.tasksPerUser.sample(random);
+        List<List<double[]>> subtasks = new ArrayList<>(count);
+        List<Long> taskIds = new ArrayList<>(count);
+        String sql = "INSERT INTO tasks (id, title, description, user_id, priority, status, estimated_hours,"
+                + " actual_hours, due_date, created_at, completed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                // Per subtask: estimated hours, done (1) or not (0), due-date offset
+                List<double[]> children = new ArrayList<>();
+                double subtaskHours = 0;
+                for (int s = settings.subtasksPerTask.sample(random); s > 0; s--) {
+                    double hours = 0.5 + random.nextInt(8) * 0.5;
+                    children.add(new double[] { hours, done() ? 1 : 0, dayOffset() });
+                    subtaskHours += hours;
+                }
+                subtasks.add(children);
+
+                boolean done = done();
+                LocalDate due = today.plusDays(dayOffset());
+                long id = taskSequence.next(connection);
+                taskIds.add(id);
+                insert.setLong(1, id);
+                insert.setString(2, "Task " + (i + 1));
+                insert.setString(3, null);
+                insert.setLong(4, userId);
+                insert.setString(5, PRIORITIES[random.nextInt(PRIORITIES.length)].name());
+                insert.setString(6, done ? TaskStatus.DONE.name() : randomOpenStatus().name());
+                // The task endpoints keep a task's estimate at least the sum of its subtasks'
+                insert.setDouble(7, Math.max(1 + random.nextInt(16) * 0.5, subtaskHours));
+                insert.setDouble(8, done ? random.nextInt(12) * 0.5 : 0);
+                insert.setDate(9, Date.valueOf(due));
+                insert.setDate(10, Date.valueOf(due.minusDays(7 + random.nextInt(30))));
+                insert.setDate(11, done ? Date.valueOf(completedOn(due)) : null);
+                insert.addBatch();
+                if ((i + 1) % settings.batchSize == 0)
+                    insert.executeBatch();
+            }
+            if (count % settings.batchSize != 0)
+                insert.executeBatch();
+        }
+        insertSubtasks(connection, taskIds, subtasks);
+        return taskIds;
+    }
+
+    private void insertSubtasks(Connection connection, List<Long> taskIds, List<List<double[]>> subtasks)
+            throws SQLException {
+        String sql = "INSERT INTO subtasks (id, title, status, description, priority, due_date, completed_hours,"
+                + " estimated_hours, completed_at, task_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (int t = 0; t < taskIds.size(); t++) {
+                int n = 0;
+                for (double[] subtask : subtasks.get(t)) {
+                    boolean done = subtask[1] == 1;
+                    LocalDate due = today.plusDays((long) subtask[2]);
+                    insert.setLong(1, subtaskSequence.next(connection));
+                    insert.setString(2, "Step " + (++n));
+                    insert.setString(3, done ? TaskStatus.DONE.name() : TaskStatus.TODO.name());
+                    insert.setString(4, null);
+                    insert.setString(5, PRIORITIES[random.nextInt(PRIORITIES.length)].name());
+                    insert.setDate(6, Date.valueOf(due));
+                    insert.setDouble(7, done ? subtask[0] : 0);
+                    insert.setDouble(8, subtask[0]);
+                    insert.setDate(9, done ? Date.valueOf(completedOn(due)) : null);
+                    insert.setLong(10, taskIds.get(t));
+                    insert.addBatch();
+                    if (++pending == settings.batchSize) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0)
+                insert.executeBatch();
+        }
+    }
+
+    private List<Long> insertSubjects(Connection connection, long userId) throws SQLException {
+        int count = settings.subjectsPerUser.sample(random);
+        // Per subject: the exams' grades and max grades, drawn first so the totals go in with the subject
+        List<double[][]> exams = new ArrayList<>(count);
+        String sql = "INSERT INTO subjects (id, subject_key, name, year, teacher, absence_days, user_id,"
+                + " total_grade, total_max_grade, exam_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Long> subjectIds = new ArrayList<>(count);
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                double[][] grades = new double[settings.examsPerSubject.sample(random)][];
+                double totalGrade = 0;
+                double totalMaxGrade = 0;
+                for (int e = 0; e < grades.length; e++) {
+                    double maxGrade = random.nextBoolean() ? 20 : 100;
+                    // Centred around 65%, clamped to the scale
+                    double grade = Math.round(Math.min(1, Math.max(0, 0.65 + random.nextGaussian() * 0.15))
+                            * maxGrade * 2) / 2.0;
+                    grades[e] = new double[] { grade, maxGrade };
+                    totalGrade += grade;
+                    totalMaxGrade += maxGrade;
+                }
+                exams.add(grades);
+
+                String key = SUBJECT_KEYS[i % SUBJECT_KEYS.length];
+                long id = subjectSequence.next(connection);
+                subjectIds.add(id);
+                insert.setLong(1, id);
+                insert.setString(2, key);
+                insert.setString(3, key.charAt(0) + key.substring(1).toLowerCase());
+                insert.setInt(4, 1 + (i / SUBJECT_KEYS.length) % 3);
+                insert.setString(5, null);
+                insert.setInt(6, random.nextInt(6));
+                insert.setLong(7, userId);
+                insert.setDouble(8, totalGrade);
+                insert.setDouble(9, totalMaxGrade);
+                insert.setInt(10, grades.length);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO exams (id, name, type, date, grade, max_grade, subject_id) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (int s = 0; s < subjectIds.size(); s++) {
+                double[][] grades = exams.get(s);
+                for (int e = 0; e < grades.length; e++) {
+                    String type = EXAM_TYPES[random.nextInt(EXAM_TYPES.length)];
+                    insert.setLong(1, examSequence.next(connection));
+                    insert.setString(2, type + " " + (e + 1));
+                    insert.setString(3, type);
+                    insert.setDate(4, Date.valueOf(today.plusDays(dayOffset())));
+                    insert.setDouble(5, grades[e][0]);
+                    insert.setDouble(6, grades[e][1]);
+                    insert.setLong(7, subjectIds.get(s));
+                    insert.addBatch();
+                    if (++pending == settings.batchSize) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0)
+                insert.executeBatch();
+        }
+        return subjectIds;
+    }
+
+    private boolean done() {
+        return random.nextDouble() < settings.doneRatio;
+    }
+
+    private TaskStatus randomOpenStatus() {
+        return random.nextBoolean() ? TaskStatus.TODO : TaskStatus.IN_PROGRESS;
+    }
+
+    private int dayOffset() {
+        return random.nextInt(2 * settings.daySpread + 1) - settings.daySpread;
+    }
+
+    // Completed on or before the due date, never in the future
+    private LocalDate completedOn(LocalDate due) {
+        LocalDate completed = due.minusDays(random.nextInt(5));
+        return completed.isAfter(today) ? today.minusDays(random.nextInt(3)) : completed;
+    }
+
+    // Hands out the ids of one sequence block by block: nextval returns the block's last id
+    private class Sequence {
+
+        private final String name;
+
+        private long next;
+
+        private long last = -1;
+
+        Sequence(String name) {
+            this.name = name;
+        }
+
+        long next(Connection connection) throws SQLException {
+            if (next > last) {
+                // A fresh sequence starts at 1, which can't end a block; Hibernate moves on to the next too
+                do {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet result = statement.executeQuery("SELECT nextval('" + name + "')")) {
+                        result.next();
+                        last = result.getLong(1);
+                    }
+                } while (last < settings.allocationSize);
+                next = last - settings.allocationSize + 1;
+            }
+            return next++;
+        }
+    }
+}
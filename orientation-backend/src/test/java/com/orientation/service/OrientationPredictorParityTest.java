@@ -0,0 +1,94 @@
+package com.orientation.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orientation.config.OrientationConfig;
+import com.orientation.config.OrientationProperties;
+import com.orientation.support.StubModelServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * model/parity-fixture.json holds inputs and the labels the Python model gave
+ * for them (ml/export_model.py --fixture). The remote stub replays those
+ * labels; the local predictor has to reach them on its own from
+ * model/orientation-model.json.
+ */
+class OrientationPredictorParityTest {
+
+    private final List<double[]> inputs = new ArrayList<>();
+    private final List<String> expected = new ArrayList<>();
+
+    private StubModelServer server;
+    private CloseableHttpClient httpClient;
+    private OrientationPredictor remote;
+    private OrientationPredictor local;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/model/parity-fixture.json")) {
+            JsonNode fixture = new ObjectMapper().readTree(in);
+            for (int i = 0; i < fixture.get("inputs").size(); i++) {
+                JsonNode row = fixture.get("inputs").get(i);
+                double[] features = new double[row.size()];
+                for (int f = 0; f < features.length; f++) {
+                    features[f] = row.get(f).asDouble();
+                }
+                inputs.add(features);
+                expected.add(fixture.get("expected").get(i).asText());
+            }
+        }
+
+        Map<String, String> recorded = new HashMap<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            recorded.put(Arrays.toString(inputs.get(i)), expected.get(i));
+        }
+        server = new StubModelServer(0);
+        server.setLabeler(features -> recorded.get(Arrays.toString(features)));
+
+        OrientationProperties properties = new OrientationProperties();
+        properties.getModel().setUrl(server.url());
+        properties.getPredictor().setModelPath("classpath:model/orientation-model.json");
+
+        OrientationConfig config = new OrientationConfig();
+        httpClient = config.modelHttpClient(config.modelConnectionManager(properties), properties);
+        remote = new RemoteOrientationPredictor(properties, config.modelRestTemplate(httpClient),
+                new ModelServerGuard(properties));
+        local = new LocalOrientationPredictor(properties, new DefaultResourceLoader());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    void localAndRemoteAgreeOnFixture() {
+        List<String> remoteLabels = remote.predict(inputs).labels();
+        List<String> localLabels = local.predict(inputs).labels();
+
+        assertEquals(expected, remoteLabels);
+        assertEquals(expected, localLabels);
+    }
+
+    @Test
+    void singleRowPredictionsAgree() {
+        for (int i = 0; i < 20; i++) {
+            List<double[]> row = List.of(inputs.get(i));
+            assertEquals(remote.predict(row).labels(), local.predict(row).labels());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationConfig;
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.StudentInput;
+import com.orientation.support.StubModelServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrientationServiceTest {
+
+    private StubModelServer server;
+    private OrientationProperties properties;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private ExecutorService executor;
+    private PredictionCache cache;
+    private ModelServerGuard guard;
+    private OrientationService service;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubModelServer(0);
+        properties = new OrientationProperties();
+        properties.getModel().setUrl(server.url());
+
+        OrientationConfig config = new OrientationConfig();
+        connectionManager = config.modelConnectionManager(properties);
+        httpClient = config.modelHttpClient(connectionManager, properties);
+        executor = Executors.newSingleThreadExecutor();
+        cache = new PredictionCache(properties);
+        properties.getBreaker().setSlidingWindowSize(4);
+        properties.getBreaker().setMinimumNumberOfCalls(4);
+        properties.getBreaker().setWaitInOpenState(Duration.ofMillis(300));
+        properties.getBreaker().setPermittedCallsInHalfOpenState(1);
+        guard = new ModelServerGuard(properties);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new OrientationService(properties,
+                new RemoteOrientationPredictor(properties, config.modelRestTemplate(httpClient), guard),
+                executor, cache, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        httpClient.close();
+        server.close();
+    }
+
+    @Test
+    void sequentialPredictionsReuseOneConnection() {
+        for (int i = 0; i < 25; i++) {
+            StudentInput input = input(80 + i, 70, 40, 30, 50, 20);
+            assertEquals("Engineering", service.predictOrientation(input));
+        }
+
+        assertEquals(25, server.requestCount());
+        assertEquals(1, server.connectionCount());
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void nearIdenticalInputsAreServedFromCache() {
+        assertEquals("Medicine", service.predictOrientation(input(40, 30, 80.01, 70, 50, 20)));
+        assertEquals("Medicine", service.predictOrientation(input(40, 30, 79.99, 70, 50, 20)));
+        assertEquals("Medicine", service.predictBatch(List.of(input(40, 30, 80, 70, 50, 20))).get(0).getRecommendedField());
+
+        assertEquals(1, server.requestCount());
+        assertEquals(2L, cache.stats().get("hits"));
+        assertEquals(1, meterRegistry.timer("orientation.predict", "outcome", "success").count());
+        assertEquals(1, meterRegistry.timer("orientation.predict", "outcome", "cache_hit").count());
+    }
+
+    @Test
+    void modelErrorsAreNeverCached() {
+        server.close();
+
+        StudentInput student = input(40, 30, 80, 70, 50, 20);
+        ModelUnavailableException first = assertThrows(ModelUnavailableException.class,
+                () -> service.predictOrientation(student));
+        ModelUnavailableException second = assertThrows(ModelUnavailableException.class,
+                () -> service.predictOrientation(student));
+
+        assertEquals("Model server unreachable", first.getMessage());
+        assertEquals("Model server unreachable", second.getMessage());
+        assertEquals(0L, cache.stats().get("size"));
+        assertEquals(2, meterRegistry.counter("orientation.predict.errors", "outcome", "unavailable").count());
+    }
+
+    @Test
+    void failingModelOpensBreakerAndProbeClosesIt() throws Exception {
+        server.setFailing(true);
+        for (int i = 0; i < 4; i++) {
+            StudentInput student = input(40 + i, 30, 80, 70, 50, 20);
+            assertThrows(ModelUnavailableException.class, () -> service.predictOrientation(student));
+        }
+        assertEquals("OPEN", guard.state());
+        assertEquals(4, server.requestCount());
+
+        // Open: fail fast without touching the server, batch items included
+        ModelUnavailableException open = assertThrows(ModelUnavailableException.class,
+                () -> service.predictOrientation(input(90, 90, 10, 10, 10, 10)));
+        assertEquals("OPEN", open.getBreakerState());
+        String batchError = service.predictBatch(List.of(input(10, 10, 90, 90, 10, 10))).get(0).getError();
+        assertEquals("Model server circuit is open", batchError);
+        assertEquals(4, server.requestCount());
+
+        // After the wait a single probe goes through and its success closes the breaker
+        server.setFailing(false);
+        Thread.sleep(400);
+        assertEquals("Engineering", service.predictOrientation(input(90, 90, 10, 10, 10, 10)));
+        assertEquals("CLOSED", guard.state());
+        assertEquals(5, server.requestCount());
+    }
+
+    @Test
+    void rejectedInputIsThrownNotReturnedAsLabel() {
+        server.setLabeler(features -> features[0] < 0 ? null : StubModelServer.expectedLabel(features));
+
+        PredictionRejectedException rejected = assertThrows(PredictionRejectedException.class,
+                () -> service.predictOrientation(input(-1, 30, 80, 70, 50, 20)));
+        assertEquals("Error from Model: invalid features", rejected.getMessage());
+        assertEquals(1, meterRegistry.counter("orientation.predict.errors", "outcome", "rejected").count());
+        assertEquals(0L, cache.stats().get("size"));
+    }
+
+    @Test
+    void modelClientErrorsPropagateWithoutOpeningBreaker() {
+        server.setBadRequest(true);
+        for (int i = 0; i < 5; i++) {
+            StudentInput student = input(40 + i, 30, 80, 70, 50, 20);
+            assertThrows(HttpClientErrorException.class, () -> service.predictOrientation(student));
+        }
+        assertEquals("CLOSED", guard.state());
+        assertEquals(5, meterRegistry.counter("orientation.predict.errors", "outcome", "bad_request").count());
+    }
+
+    @Test
+    void newModelVersionInvalidatesCache() {
+        StudentInput student = input(40, 30, 50, 40, 90, 80);
+        service.predictOrientation(student);
+        service.predictOrientation(student);
+        assertEquals(1, server.requestCount());
+
+        server.setModelVersion("v2");
+        service.predictOrientation(input(90, 90, 10, 10, 10, 10));
+        service.predictOrientation(student);
+
+        assertEquals(3, server.requestCount());
+        assertEquals(1L, cache.stats().get("invalidations"));
+        assertEquals("v2", cache.stats().get("modelVersion"));
+    }
+
+    static StudentInput input(double math, double physics, double chemistry, double biology,
+            double english, double geography) {
+        StudentInput input = new StudentInput();
+        input.setMathScore(math);
+        input.setPhysicsScore(physics);
+        input.setChemistryScore(chemistry);
+        input.setBiologyScore(biology);
+        input.setEnglishScore(english);
+        input.setGeographyScore(geography);
+        input.setWeeklySelfStudyHours(10);
+        input.setAbsenceDays(2);
+        return input;
+    }
+}
@@ -0,0 +1,199 @@
+package com.orientation.service;
+
+import com.orientation.config.OrientationProperties;
+import com.orientation.model.SubTask;
+import com.orientation.model.Task;
+import com.orientation.model.WeekHours;
+import com.orientation.model.enums.TaskStatus;
+import com.orientation.repository.StudyHoursDailyRepository;
+import com.orientation.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Analytics read from the rollup must give exactly what the former in-memory
+ * streams gave on the same random data. Hours are multiples of 0.5 so sums
+ * are exact in any order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StudyAnalyticsServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private StudyHoursDailyRepository rollupRepository;
+
+    @Autowired
+    private StudyHoursRollupService rollupService;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void rollupMatchesInMemoryComputation() {
+        Random random = new Random(20240315);
+        Map<Long, List<Task>> byUser = new HashMap<>();
+        for (long userId = 1; userId <= 4; userId++) {
+            List<Task> tasks = randomTasks(random, userId, 50 + random.nextInt(150));
+            taskRepository.saveAll(tasks);
+            byUser.put(userId, tasks);
+        }
+        // Saved straight through the repository, so the rollup has to be built from scratch
+        rollupService.rebuild();
+        assertTrue(rollupService.check().isEmpty());
+
+        OrientationProperties defaults = new OrientationProperties();
+        OrientationProperties custom = new OrientationProperties();
+        custom.getAnalytics().setRecentDays(3);
+        custom.getAnalytics().setHistoryBuckets(5);
+        custom.getAnalytics().setBucketDays(10);
+
+        for (OrientationProperties properties : List.of(defaults, custom)) {
+            StudyAnalyticsService service = new StudyAnalyticsService(properties, rollupRepository);
+            OrientationProperties.Analytics analytics = properties.getAnalytics();
+            for (Map.Entry<Long, List<Task>> user : byUser.entrySet()) {
+                List<Task> tasks = user.getValue();
+                Long userId = user.getKey();
+
+                assertEquals(totalHours(tasks), service.totalHours(userId));
+                assertEquals(recentHours(tasks, analytics.getRecentDays()), service.recentHours(userId, TODAY));
+                assertEquals(recentCompleted(tasks, analytics.getRecentDays()),
+                        service.recentCompletedCount(userId, TODAY));
+                assertEquals(history(tasks, analytics.getHistoryBuckets(), analytics.getBucketDays()),
+                        service.hoursHistory(userId, TODAY));
+            }
+        }
+    }
+
+    @Test
+    void userWithoutTasksGetsZeroes() {
+        StudyAnalyticsService service = new StudyAnalyticsService(new OrientationProperties(), rollupRepository);
+
+        assertEquals(0.0, service.totalHours(99L));
+        assertEquals(0.0, service.recentHours(99L, TODAY));
+        assertEquals(0, service.recentCompletedCount(99L, TODAY));
+        assertEquals(8, service.hoursHistory(99L, TODAY).size());
+    }
+
+    private static List<Task> randomTasks(Random random, long userId, int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setUserId(userId);
+            task.setStatus(randomStatus(random));
+            task.setEstimatedHours(random.nextInt(20) * 0.5);
+            task.setCompletedAt(randomDate(random));
+            int subTasks = random.nextInt(4);
+            for (int j = 0; j < subTasks; j++) {
+                SubTask subTask = new SubTask();
+                subTask.setTitle("Step " + j);
+                subTask.setStatus(randomStatus(random));
+                subTask.setEstimatedHours(random.nextInt(10) * 0.5);
+                subTask.setCompletedAt(randomDate(random));
+                subTask.setParentTask(task);
+                task.getSubTasks().add(subTask);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static TaskStatus randomStatus(Random random) {
+        return random.nextInt(3) == 0 ? TaskStatus.TODO : TaskStatus.DONE;
+    }
+
+    // Mostly inside the history window, some before it, after today or missing
+    private static LocalDate randomDate(Random random) {
+        if (random.nextInt(8) == 0)
+            return null;
+        return TODAY.minusDays(random.nextInt(75) - 3);
+    }
+
+    // ===== Former in-memory implementation, used as the oracle =====
+
+    private static double totalHours(List<Task> tasks) {
+        double taskHours = tasks.stream()
+                .filter(t -> t.getStatus() == TaskStatus.DONE)
+                .mapToDouble(Task::getEstimatedHours)
+                .sum();
+        double subTaskHours = tasks.stream()
+                .flatMap(t -> t.getSubTasks().stream())
+                .filter(st -> st.getStatus() == TaskStatus.DONE)
+                .mapToDouble(SubTask::getEstimatedHours)
+                .sum();
+        return taskHours + subTaskHours;
+    }
+
+    private static double recentHours(List<Task> tasks, int days) {
+        LocalDate weekAgo = TODAY.minusDays(days);
+        double taskHours = tasks.stream()
+                .filter(t -> t.getStatus() == TaskStatus.DONE && t.getCompletedAt() != null
+                        && !t.getCompletedAt().isBefore(weekAgo))
+                .mapToDouble(Task::getEstimatedHours)
+                .sum();
+        double subTaskHours = tasks.stream()
+                .flatMap(t -> t.getSubTasks().stream())
+                .filter(st -> st.getStatus() == TaskStatus.DONE && st.getCompletedAt() != null
+                        && !st.getCompletedAt().isBefore(weekAgo))
+                .mapToDouble(SubTask::getEstimatedHours)
+                .sum();
+        return taskHours + subTaskHours;
+    }
+
+    private static int recentCompleted(List<Task> tasks, int days) {
+        LocalDate weekAgo = TODAY.minusDays(days);
+        return (int) tasks.stream()
+                .filter(t -> t.getStatus() == TaskStatus.DONE && t.getCompletedAt() != null
+                        && !t.getCompletedAt().isBefore(weekAgo))
+                .count();
+    }
+
+    private static List<WeekHours> history(List<Task> tasks, int buckets, int bucketDays) {
+        List<WeekHours> result = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            LocalDate weekEnd = TODAY.minusDays((long) i * bucketDays);
+            LocalDate weekStart = weekEnd.minusDays(bucketDays - 1);
+
+            double taskHours = tasks.stream()
+                    .filter(t -> t.getStatus() == TaskStatus.DONE && t.getCompletedAt() != null)
+                    .filter(t -> !t.getCompletedAt().isBefore(weekStart) && !t.getCompletedAt().isAfter(weekEnd))
+                    .mapToDouble(Task::getEstimatedHours)
+                    .sum();
+            double subTaskHours = tasks.stream()
+                    .flatMap(t -> t.getSubTasks().stream())
+                    .filter(st -> st.getStatus() == TaskStatus.DONE && st.getCompletedAt() != null)
+                    .filter(st -> !st.getCompletedAt().isBefore(weekStart) && !st.getCompletedAt().isAfter(weekEnd))
+                    .mapToDouble(SubTask::getEstimatedHours)
+                    .sum();
+
+            String label = String.format("%s - %s",
+                    weekStart.getMonth().toString().substring(0, 3) + " " + weekStart.getDayOfMonth(),
+                    weekEnd.getMonth().toString().substring(0, 3) + " " + weekEnd.getDayOfMonth());
+            result.add(new WeekHours(weekStart.toString(), weekEnd.toString(), taskHours + subTaskHours, label));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.orientation.support;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * PostgreSQL functions the migrations call that H2 lacks, registered as H2
+ * aliases so the real scripts run against an in-memory database.
+ */
+public final class PostgresFunctions {
+
+    private PostgresFunctions() {
+    }
+
+    public static void register(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS setval FOR \"" + PostgresFunctions.class.getName() + ".setval\"");
+        }
+    }
+
+    // As in PostgreSQL: the next nextval returns value plus the sequence's increment
+    public static long setval(Connection connection, String sequence, long value) throws SQLException {
+        long increment;
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT increment FROM information_schema.sequences WHERE sequence_name = ?")) {
+            query.setString(1, sequence);
+            try (ResultSet result = query.executeQuery()) {
+                if (!result.next())
+                    throw new SQLException("sequence " + sequence + " not found");
+                increment = result.getLong(1);
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (value + increment));
+        }
+        return value;
+    }
+}
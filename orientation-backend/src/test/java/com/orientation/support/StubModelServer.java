@@ -0,0 +1,161 @@
+package com.orientation.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Stand-in for ml/predict.py: answers /predict and /predict/batch on a random
+ * local port with a fixed rule (strongest subject group wins) after an
+ * optional artificial latency.
+ */
+public class StubModelServer implements AutoCloseable {
+
+    private static final String[] FIELDS = { "Engineering", "Medicine", "Humanities" };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Set<InetSocketAddress> clients = ConcurrentHashMap.newKeySet();
+    private volatile long latencyMillis;
+    private volatile boolean failing;
+    private volatile boolean badRequest;
+    private volatile String modelVersion = "v1";
+    private volatile Function<double[], String> labeler = StubModelServer::expectedLabel;
+
+    public StubModelServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/predict", this::handle);
+        this.server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    // Distinct client sockets seen so far, i.e. TCP connections opened against the stub
+    public int connectionCount() {
+        return clients.size();
+    }
+
+    public void setModelVersion(String modelVersion) {
+        this.modelVersion = modelVersion;
+    }
+
+    // Replaces the built-in rule, e.g. to replay labels recorded from the real model
+    public void setLabeler(Function<double[], String> labeler) {
+        this.labeler = labeler;
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    // Answers every request with a 500, as predict.py does when the model blows up
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    // Answers every request with a 400, as predict.py does for a body it can't read
+    public void setBadRequest(boolean badRequest) {
+        this.badRequest = badRequest;
+    }
+
+    public static String expectedLabel(double[] features) {
+        double engineering = features[0] + features[1];
+        double medicine = features[2] + features[3];
+        double humanities = features[4] + features[5];
+        if (engineering >= medicine && engineering >= humanities)
+            return FIELDS[0];
+        return medicine >= humanities ? FIELDS[1] : FIELDS[2];
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clients.add(exchange.getRemoteAddress());
+        try {
+            if (failing) {
+                exchange.getRequestBody().readAllBytes();
+                respond(exchange, 500, "{\"error\":\"model failure\"}".getBytes());
+                return;
+            }
+            if (badRequest) {
+                exchange.getRequestBody().readAllBytes();
+                respond(exchange, 400, "{\"error\":\"malformed request\"}".getBytes());
+                return;
+            }
+            JsonNode body = mapper.readTree(exchange.getRequestBody());
+            if (latencyMillis > 0)
+                Thread.sleep(latencyMillis);
+
+            Map<String, Object> response = new HashMap<>();
+            if (exchange.getRequestURI().getPath().endsWith("/batch")) {
+                List<String> predictions = new ArrayList<>();
+                List<String> errors = new ArrayList<>();
+                for (JsonNode row : body.get("instances")) {
+                    String label = labeler.apply(toArray(row));
+                    predictions.add(label);
+                    errors.add(label == null ? "invalid features" : null);
+                }
+                response.put("predictions", predictions);
+                response.put("errors", errors);
+            } else {
+                // A null label stands for an input the model won't score
+                String label = labeler.apply(toArray(body.get("features")));
+                if (label != null)
+                    response.put("prediction", label);
+                else
+                    response.put("error", "invalid features");
+            }
+            respond(exchange, 200, mapper.writeValueAsBytes(response));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 500, "{\"error\":\"interrupted\"}".getBytes());
+        }
+    }
+
+    private static double[] toArray(JsonNode row) {
+        double[] features = new double[row.size()];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = row.get(i).asDouble();
+        }
+        return features;
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-Model-Version", modelVersion);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+-- The schema as spring.jpa.hibernate.ddl-auto=update left it before Flyway took over:
+-- identity ids and no study_hours_daily. FlywayBaselineUpgradeTest baselines it at V1.
+
+create table users (id bigint generated by default as identity, created_at timestamp(6), email varchar(255) not null, name varchar(255) not null, password varchar(255) not null, primary key (id));
+create table tasks (actual_hours float(53) not null, completed_at date, created_at date, due_date date, estimated_hours float(53) not null, id bigint generated by default as identity, user_id bigint, description varchar(1000), priority varchar(255) check (priority in ('LOW','MEDIUM','HIGH')), status varchar(255) check (status in ('TODO','IN_PROGRESS','DONE')), title varchar(255), primary key (id));
+create table subtasks (completed_at date, completed_hours float(53) not null, due_date date, estimated_hours float(53) not null, id bigint generated by default as identity, task_id bigint, description varchar(255), priority varchar(255) check (priority in ('LOW','MEDIUM','HIGH')), status varchar(255) check (status in ('TODO','IN_PROGRESS','DONE')), title varchar(255), primary key (id));
+create table subjects (absence_days integer not null, year integer not null, id bigint generated by default as identity, user_id bigint, name varchar(255), subject_key varchar(255), teacher varchar(255), primary key (id));
+create table exams (date date, grade float(53) not null, max_grade float(53) not null, id bigint generated by default as identity, subject_id bigint, name varchar(255), type varchar(255), primary key (id));
+alter table if exists users add constraint uk_users_email unique (email);
+alter table if exists subtasks add constraint fk_subtasks_task foreign key (task_id) references tasks;
+alter table if exists exams add constraint fk_exams_subject foreign key (subject_id) references subjects;